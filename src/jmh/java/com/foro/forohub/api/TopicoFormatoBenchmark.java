@@ -0,0 +1,93 @@
+package com.foro.forohub.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import com.foro.forohub.domain.topico.StatusTopico;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+/**
+ * GET /topicos en cada formato negociable: tiempo de serializar la página (con el envoltorio
+ * {@link PagedModel} que escribe la API) y de serializar + gzip, como sale con compresión.
+ * Los bytes en el cable (sin comprimir y con gzip) se imprimen al preparar cada combinación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopicoFormatoBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String formato;
+
+    @Param({"10", "50", "200"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private PagedModel<TopicoResponseDTO> page;
+
+    @Setup
+    public void setup() {
+        mapper = switch (formato) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        LocalDateTime ahora = LocalDateTime.now();
+        String mensaje = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(9);
+        List<TopicoResponseDTO> filas = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            filas.add(new TopicoResponseDTO(id, "Título del tópico " + id, mensaje + id, ahora, StatusTopico.ABIERTO,
+                    "autor" + id, "Curso " + (id % 20), ahora, id % 5, (int) (id % 7), ahora));
+        }
+        page = new PagedModel<>(new PageImpl<>(filas, PageRequest.of(0, size, DESC, "fechaCreacion"), 10_000));
+
+        byte[] crudo = serializar();
+        System.out.printf("%n# bytes formato=%s size=%d: %d sin comprimir, %d con gzip%n",
+                formato, size, crudo.length, gzip(crudo).length);
+    }
+
+    @Benchmark
+    public byte[] serializar() {
+        try {
+            return mapper.writeValueAsBytes(page);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarGzip() {
+        return gzip(serializar());
+    }
+
+    // ================= Helpers =================
+
+    private static byte[] gzip(byte[] datos) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(datos.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(datos);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,32 @@
+package com.foro.forohub.api;
+
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import com.foro.forohub.domain.topico.Topico;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/** Mapeo entidad -> DTO de {@link TopicoController#toDto} (la respuesta de POST /topicos). */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopicoMapeoBenchmark {
+
+    private Topico topico;
+
+    @Setup
+    public void setup() {
+        LocalDateTime ahora = LocalDateTime.now();
+        topico = Topico.builder().id(1L).titulo("Título").mensaje("Mensaje del tópico").autor("autor")
+                .curso("Spring Boot").fechaActualizacion(ahora).version(0L).build();
+    }
+
+    @Benchmark
+    public TopicoResponseDTO toDto() {
+        return TopicoController.toDto(topico);
+    }
+}
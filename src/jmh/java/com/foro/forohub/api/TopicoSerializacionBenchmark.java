@@ -0,0 +1,55 @@
+package com.foro.forohub.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import com.foro.forohub.domain.topico.StatusTopico;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+/**
+ * Serialización con Jackson de una página de {@link TopicoResponseDTO} (lo que escribe GET /topicos),
+ * con mensajes de ~500 caracteres.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopicoSerializacionBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private Page<TopicoResponseDTO> page;
+
+    @Setup
+    public void setup() {
+        // Misma configuración base que el ObjectMapper de Spring Boot (JavaTimeModule, fechas ISO)
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime ahora = LocalDateTime.now();
+        String mensaje = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(9);
+        List<TopicoResponseDTO> filas = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            filas.add(new TopicoResponseDTO(id, "Título del tópico " + id, mensaje, ahora, StatusTopico.ABIERTO,
+                    "autor" + id, "Spring Boot", ahora, 0L, 3, ahora));
+        }
+        page = new PageImpl<>(filas, PageRequest.of(0, size, DESC, "fechaCreacion"), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+}
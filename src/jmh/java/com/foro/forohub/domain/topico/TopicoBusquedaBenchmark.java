@@ -0,0 +1,77 @@
+package com.foro.forohub.domain.topico;
+
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas/seg de {@link TopicoIndice#buscar} según el tamaño del índice.
+ * Vocabulario sintético con distribución tipo Zipf: "w0" aparece en casi todos los documentos, "w4000" en muy pocos.
+ * El tamaño del índice (documentos, términos, postings) se imprime al preparar cada @Param.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopicoBusquedaBenchmark {
+
+    private static final int VOCABULARIO = 5000;
+
+    @Param({"10000", "100000"})
+    public int documentos;
+
+    private TopicoIndice indice;
+    private final TopicoFiltro sinFiltro = new TopicoFiltro(null, null, null);
+    private final TopicoFiltro porCurso = new TopicoFiltro(null, "curso-3", null);
+    private final PageRequest pagina = PageRequest.of(0, 10);
+
+    @Setup
+    public void setup() {
+        indice = new TopicoIndice(new SimpleDriverDataSource(), 0, false);
+        SplittableRandom rnd = new SplittableRandom(42);
+        LocalDateTime ahora = LocalDateTime.now();
+        for (long id = 1; id <= documentos; id++) {
+            indice.indexar(new TopicoResponseDTO(id, texto(rnd, 6), texto(rnd, 60), ahora,
+                    StatusTopico.ABIERTO, "autor-" + (id % 500), "curso-" + (id % 20), ahora, 0L, 0, null));
+        }
+        System.out.println("\n" + indice.estadisticas());
+    }
+
+    @Benchmark
+    public Page<TopicoIndice.Resultado> terminoFrecuente() {
+        return indice.buscar("w1", sinFiltro, pagina);
+    }
+
+    @Benchmark
+    public Page<TopicoIndice.Resultado> terminoRaro() {
+        return indice.buscar("w4000", sinFiltro, pagina);
+    }
+
+    @Benchmark
+    public Page<TopicoIndice.Resultado> dosTerminos() {
+        return indice.buscar("w10 w250", sinFiltro, pagina);
+    }
+
+    @Benchmark
+    public Page<TopicoIndice.Resultado> dosTerminosConFiltro() {
+        return indice.buscar("w10 w250", porCurso, pagina);
+    }
+
+    /** Palabras con rango ~ Zipf: el índice i se elige con probabilidad proporcional a 1/(i+1). */
+    private static String texto(SplittableRandom rnd, int palabras) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            int rango = (int) Math.floor(Math.exp(rnd.nextDouble() * Math.log(VOCABULARIO))) - 1;
+            sb.append('w').append(rango).append(' ');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.foro.forohub.security;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino completo de {@link JwtAuthFilter} por petición: header -> caché o verificación -> SecurityContext.
+ * El UserDetailsService es un stub en memoria, así que se mide solo el costo del filtro (sin BD).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    /** Con caché: cada petición es un acierto. Sin caché: verificación de firma + carga del usuario en cada una. */
+    @Param({"true", "false"})
+    public boolean cache;
+
+    /** database: pasa por el UserDetailsService; claims: arma el principal con los claims firmados. */
+    @Param({"database", "claims"})
+    public String principalSource;
+
+    private JwtAuthFilter filter;
+    private String bearer;
+    private final FilterChain chain = (req, res) -> {};
+
+    @Setup
+    public void setup() {
+        JwtService jwtService = new JwtService(new JwtKeyRing(SECRET, "HS256", "PT1H", "P7D", "PT1H", "", ""), "PT1H");
+        UserDetails user = User.withUsername("bench@mail.com").password("x").roles("USER").build();
+        UserDetailsService uds = username -> user;
+        filter = new JwtAuthFilter(jwtService, uds, new JwtTokenCache(cache, 10_000),
+                new JwtDenyList(null), principalSource); // deny list vacía: solo el lookup en memoria
+        bearer = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        // Petición nueva en cada invocación: OncePerRequestFilter marca la petición como ya filtrada
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/topicos");
+        request.addHeader("Authorization", bearer);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
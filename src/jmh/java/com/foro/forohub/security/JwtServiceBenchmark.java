@@ -0,0 +1,55 @@
+package com.foro.forohub.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Firma y validación de tokens con {@link JwtService} para cada algoritmo: HMAC con el secreto
+ * y RS256/ES256 con un par generado en memoria por {@link JwtKeyRing}.
+ * El secreto (Base64) tiene 64 bytes: alcanza para HS512, que exige una clave de al menos 512 bits.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("0123456789abcdef".repeat(4).getBytes(StandardCharsets.US_ASCII));
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "ES256"})
+    public String alg;
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(new JwtKeyRing(SECRET, alg, "PT1H", "P7D", "PT1H", "", ""), "PT1H");
+        user = User.withUsername("bench@mail.com").password("x").roles("USER").build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return jwtService.isValid(token, user);
+    }
+}
@@ -0,0 +1,59 @@
+package com.foro.forohub.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación de un token: camino anterior (3 parseos, un parser nuevo por parseo)
+ * contra {@link JwtService#verify(String)} con el parser compartido.
+ * Tokens/seg = ops/s; la asignación por validación sale de {@code -prof gc} (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(new JwtKeyRing(SECRET, "HS256", "PT1H", "P7D", "PT1H", "", ""), "PT1H");
+        user = User.withUsername("bench@mail.com").password("x").roles("USER").build();
+        token = jwtService.generateToken(user);
+    }
+
+    /** Lo que hacía el filtro antes: extractUsername + isValid (extractUsername + isExpired). */
+    @Benchmark
+    public boolean legacyThreeParses() {
+        String username = legacyClaims().getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims().getSubject().equals(user.getUsername())
+                && !legacyClaims().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken verifyOnce() {
+        return jwtService.verify(token);
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(jwtService.getKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -1,37 +1,86 @@
 // src/main/java/com/foro/forohub/api/AuthController.java
 package com.foro.forohub.api;
 
+import com.foro.forohub.security.JwtDenyList;
 import com.foro.forohub.security.JwtService;
+import com.foro.forohub.security.RefreshTokenService;
+import com.foro.forohub.security.VerifiedToken;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;                   // <-- nuevo
 import org.springframework.security.authentication.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.ExceptionHandler; // <-- nuevo
 import java.util.Map;                                         // <-- nuevo
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 record LoginRequest(String username, String password) {}
-record LoginResponse(String token) {}
+record LoginResponse(String token, String refreshToken) {}
+record RefreshRequest(String refreshToken) {}
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
     private final AuthenticationManager authManager;
     private final JwtService jwtService;
+    private final AsyncTaskExecutor loginExecutor;
+    private final RefreshTokenService refreshTokens;
+    private final JwtDenyList denyList;
+    private final UserDetailsService uds;
 
-    public AuthController(AuthenticationManager authManager, JwtService jwtService) {
+    public AuthController(AuthenticationManager authManager, JwtService jwtService,
+                          @Qualifier("loginExecutor") AsyncTaskExecutor loginExecutor,
+                          RefreshTokenService refreshTokens, JwtDenyList denyList, UserDetailsService uds) {
         this.authManager = authManager;
         this.jwtService = jwtService;
+        this.loginExecutor = loginExecutor;
+        this.refreshTokens = refreshTokens;
+        this.denyList = denyList;
+        this.uds = uds;
     }
 
+    // El hash de la contraseña corre en el pool de login; el hilo de Tomcat queda libre mientras tanto
     @PostMapping(value = "/login", consumes = "application/json", produces = "application/json") // <-- cambiado
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest req) {
-        var authToken = new UsernamePasswordAuthenticationToken(req.username(), req.password());
-        var auth = authManager.authenticate(authToken);
-        var user = (UserDetails) auth.getPrincipal();
-        String token = jwtService.generateToken(user);
-        return ResponseEntity.ok(new LoginResponse(token));
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest req) {
+        return CompletableFuture.supplyAsync(() -> {
+            var authToken = new UsernamePasswordAuthenticationToken(req.username(), req.password());
+            var auth = authManager.authenticate(authToken);
+            var user = (UserDetails) auth.getPrincipal();
+            String token = jwtService.generateToken(user);
+            return ResponseEntity.ok(new LoginResponse(token, refreshTokens.issue(user.getUsername())));
+        }, loginExecutor);
+    }
+
+    // Access token nuevo a cambio de un refresh token de un solo uso (que se reemplaza por otro)
+    @PostMapping(value = "/refresh", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshRequest req) {
+        if (req.refreshToken() == null || req.refreshToken().isBlank()) {
+            throw new IllegalArgumentException("refreshToken es obligatorio");
+        }
+        RefreshTokenService.Rotation rotation = refreshTokens.rotate(req.refreshToken());
+        UserDetails user = uds.loadUserByUsername(rotation.username()); // roles actuales, no los del login
+        return ResponseEntity.ok(new LoginResponse(jwtService.generateToken(user), rotation.refreshToken()));
+    }
+
+    // Revoca el access token de la petición (hasta su exp) y, si viene, la familia del refresh token
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            HttpServletRequest request,
+            @RequestBody(required = false) RefreshRequest req
+    ) {
+        // Lo deja JwtAuthFilter solo si el token es válido y no estaba revocado
+        VerifiedToken token = (VerifiedToken) request.getAttribute(VerifiedToken.ATTRIBUTE);
+        if (token != null) denyList.revoke(token.id(), token.expiresAt());
+        if (req != null && req.refreshToken() != null) refreshTokens.revokeFamily(req.refreshToken());
+        return ResponseEntity.noContent().build(); // 204
     }
 
     // --- Manejadores de error amigables ---
@@ -41,12 +90,27 @@ public class AuthController {
                 .body(Map.of("error", "bad_credentials", "message", "Usuario o contraseña inválidos"));
     }
 
+    // Refresh token inexistente, vencido, revocado o ya usado; o su usuario ya no existe
+    @ExceptionHandler({ CredentialsExpiredException.class, UsernameNotFoundException.class })
+    public ResponseEntity<Map<String, String>> handleInvalidRefresh(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "invalid_refresh_token", "message", "Refresh token inválido, vencido o ya usado"));
+    }
+
     @ExceptionHandler({ DisabledException.class, LockedException.class })
     public ResponseEntity<Map<String, String>> handleAccountStatus(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
                 .body(Map.of("error", "account_restricted", "message", ex.getMessage()));
     }
 
+    // Pool de login saturado (cola llena): se rechaza rápido en vez de encolar sin límite
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleLoginBusy(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "login_busy", "message", "Demasiados inicios de sesión, reintente en unos segundos"));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -0,0 +1,30 @@
+package com.foro.forohub.api;
+
+import com.foro.forohub.security.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Claves públicas de firma de los JWT (RFC 7517). Otros servicios validan nuestros tokens con este
+ * documento, sin compartir secretos; el max-age es menor que la pre-publicación de la próxima clave.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keys;
+
+    public JwksController(JwtKeyRing keys) {
+        this.keys = keys;
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/jwk-set+json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(keys.jwksMaxAge()).cachePublic())
+                .body(keys.jwks()); // 200
+    }
+}
@@ -0,0 +1,131 @@
+package com.foro.forohub.api;
+
+import com.foro.forohub.api.dto.CursorPage;
+import com.foro.forohub.api.dto.RespuestaCreateDTO;
+import com.foro.forohub.api.dto.RespuestaResponseDTO;
+import com.foro.forohub.domain.respuesta.Respuesta;
+import com.foro.forohub.domain.respuesta.RespuestaRepository;
+import com.foro.forohub.domain.topico.TopicoCursor;
+import com.foro.forohub.domain.topico.TopicoRepository;
+import jakarta.validation.Valid;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.foro.forohub.domain.topico.TopicoConsultas.CACHE_DETALLE;
+import static com.foro.forohub.domain.topico.TopicoConsultas.CACHE_PRIMERA_PAGINA;
+
+/**
+ * Respuestas de un tópico. Cada alta o baja actualiza en la misma transacción los contadores
+ * desnormalizados del tópico (cantidad_respuestas, fecha_ultima_respuesta) y su versión,
+ * por eso invalida las mismas cachés que una edición del tópico.
+ */
+@RestController
+@RequestMapping("/topicos/{topicoId}/respuestas")
+public class RespuestaController {
+
+    private static final int MAX_CURSOR_SIZE = 100;
+
+    private final RespuestaRepository repository;
+    private final TopicoRepository topicos;
+
+    public RespuestaController(RespuestaRepository repository, TopicoRepository topicos) {
+        this.repository = repository;
+        this.topicos = topicos;
+    }
+
+    // CREATE: primero el UPDATE del contador (bloquea el tópico y detecta si no existe), luego el INSERT
+    @PostMapping
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_DETALLE, key = "#topicoId"),
+            @CacheEvict(cacheNames = CACHE_PRIMERA_PAGINA, allEntries = true)
+    })
+    public ResponseEntity<RespuestaResponseDTO> crear(
+            @PathVariable Long topicoId,
+            @RequestBody @Valid RespuestaCreateDTO dto,
+            UriComponentsBuilder uriBuilder
+    ) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (topicos.sumarRespuesta(topicoId, ahora) == 0) return ResponseEntity.notFound().build(); // 404
+
+        Respuesta respuesta = repository.save(Respuesta.builder()
+                .topico(topicos.getReferenceById(topicoId))
+                .mensaje(dto.mensaje())
+                .autor(dto.autor())
+                .fechaCreacion(ahora)
+                .build());
+
+        URI location = uriBuilder.path("/topicos/{topicoId}/respuestas/{id}")
+                .buildAndExpand(topicoId, respuesta.getId()).toUri();
+        return ResponseEntity.created(location).body(toDto(respuesta)); // 201
+    }
+
+    // READ (por cursor, en orden cronológico: sin cursor la primera página, luego el nextCursor recibido)
+    @GetMapping
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<RespuestaResponseDTO>> listar(
+            @PathVariable Long topicoId,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int limite = Math.max(1, Math.min(size, MAX_CURSOR_SIZE));
+        List<RespuestaResponseDTO> filas;
+        try {
+            filas = cursor.isBlank()
+                    ? repository.findPrimeras(topicoId, Limit.of(limite + 1))
+                    : repository.findSiguientes(topicoId, TopicoCursor.decode(cursor), Limit.of(limite + 1));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build(); // 400 cursor mal formado
+        }
+        // Solo una primera página vacía obliga a distinguir "sin respuestas" de "tópico inexistente"
+        if (filas.isEmpty() && cursor.isBlank() && !topicos.existsById(topicoId)) {
+            return ResponseEntity.notFound().build(); // 404
+        }
+
+        String next = null;
+        if (filas.size() > limite) {
+            filas = filas.subList(0, limite);
+            RespuestaResponseDTO ultima = filas.get(limite - 1);
+            next = new TopicoCursor(ultima.fechaCreacion(), ultima.id()).encode();
+        }
+        return ResponseEntity.ok(new CursorPage<>(filas, limite, next)); // 200
+    }
+
+    // READ (detalle)
+    @GetMapping("/{id}")
+    @Transactional(readOnly = true)
+    public ResponseEntity<RespuestaResponseDTO> detalle(@PathVariable Long topicoId, @PathVariable Long id) {
+        return repository.findDto(topicoId, id)
+                .map(ResponseEntity::ok) // 200
+                .orElseGet(() -> ResponseEntity.notFound().build()); // 404
+    }
+
+    // DELETE: bloquea el tópico (mismo orden que el alta), borra y recalcula contador y última respuesta
+    @DeleteMapping("/{id}")
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_DETALLE, key = "#topicoId"),
+            @CacheEvict(cacheNames = CACHE_PRIMERA_PAGINA, allEntries = true)
+    })
+    public ResponseEntity<Void> eliminar(@PathVariable Long topicoId, @PathVariable Long id) {
+        if (topicos.bloquear(topicoId).isEmpty()
+                || repository.deleteOne(topicoId, id) == 0) {
+            return ResponseEntity.notFound().build(); // 404
+        }
+        topicos.restarRespuesta(topicoId, LocalDateTime.now());
+        return ResponseEntity.noContent().build(); // 204
+    }
+
+    static RespuestaResponseDTO toDto(Respuesta r) {
+        return new RespuestaResponseDTO(r.getId(), r.getTopico().getId(), r.getMensaje(), r.getAutor(), r.getFechaCreacion());
+    }
+}
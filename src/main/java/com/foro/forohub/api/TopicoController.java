@@ -1,45 +1,98 @@
 package com.foro.forohub.api;
 
+import com.foro.forohub.api.dto.CursorPage;
 import com.foro.forohub.api.dto.TopicoCreateDTO;
 import com.foro.forohub.api.dto.TopicoUpdateDTO;
 import com.foro.forohub.api.dto.TopicoResponseDTO;
+import com.foro.forohub.api.dto.TopicoResumenDTO;
+import com.foro.forohub.config.MessageConverterConfig;
 import com.foro.forohub.domain.topico.Topico;
+import com.foro.forohub.domain.topico.TopicoConsultas;
+import com.foro.forohub.domain.topico.TopicoCursor;
+import com.foro.forohub.domain.topico.TopicoEvento;
+import com.foro.forohub.domain.topico.TopicoExportador;
+import com.foro.forohub.domain.topico.TopicoFiltro;
+import com.foro.forohub.domain.topico.TopicoImportador;
+import com.foro.forohub.domain.topico.TopicoIndice;
 import com.foro.forohub.domain.topico.TopicoRepository;
-import com.foro.forohub.domain.topico.StatusTopico;
-import jakarta.transaction.Transactional;
+import com.foro.forohub.domain.topico.TopicoVersion;
+import com.foro.forohub.domain.topico.TopicoVistas;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static com.foro.forohub.domain.topico.TopicoConsultas.CACHE_DETALLE;
+import static com.foro.forohub.domain.topico.TopicoConsultas.CACHE_PRIMERA_PAGINA;
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
 @RestController
 @RequestMapping("/topicos")
 public class TopicoController {
 
+    private static final int MAX_CURSOR_SIZE = 100;
+
     private final TopicoRepository repository;
+    private final TopicoConsultas consultas;
+    private final TopicoImportador importador;
+    private final TopicoExportador exportador;
+    private final TopicoIndice indice;
+    private final ApplicationEventPublisher eventos;
+    private final TopicoFeed feed;
+    private final TopicoVistas vistas;
 
-    public TopicoController(TopicoRepository repository) {
+    public TopicoController(TopicoRepository repository, TopicoConsultas consultas,
+                            TopicoImportador importador, TopicoExportador exportador,
+                            TopicoIndice indice, ApplicationEventPublisher eventos, TopicoFeed feed,
+                            TopicoVistas vistas) {
         this.repository = repository;
+        this.consultas = consultas;
+        this.importador = importador;
+        this.exportador = exportador;
+        this.indice = indice;
+        this.eventos = eventos;
+        this.feed = feed;
+        this.vistas = vistas;
     }
 
     // CREATE
     @PostMapping
     @Transactional
+    @CacheEvict(cacheNames = CACHE_PRIMERA_PAGINA, allEntries = true)
     public ResponseEntity<?> crear(
             @RequestBody @Valid TopicoCreateDTO dto,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
             UriComponentsBuilder uriBuilder
     ) {
-        if (repository.existsByTituloAndMensaje(dto.titulo(), dto.mensaje())) {
-            return ResponseEntity.unprocessableEntity().build(); // 422
-        }
-
+        // Sin consulta previa: un duplicado viola uk_topicos_hash_contenido y se responde 422 desde el handler
         Topico topico = Topico.builder()
                 .titulo(dto.titulo())
                 .mensaje(dto.mensaje())
@@ -50,69 +103,240 @@ public class TopicoController {
         topico = repository.save(topico);
 
         TopicoResponseDTO body = toDto(topico);
+        eventos.publishEvent(new TopicoEvento.Creado(body)); // se entrega tras el commit
         URI location = uriBuilder.path("/topicos/{id}").buildAndExpand(topico.getId()).toUri();
-        return ResponseEntity.created(location).body(body); // 201
+        return conVersion(ResponseEntity.created(location), body, MessageConverterConfig.formato(accept)); // 201
+    }
+
+    // CREATE (importación masiva): NDJSON o arreglo JSON de TopicoCreateDTO; responde NDJSON con el resultado por fila
+    @PostMapping(path = "/importar", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @CacheEvict(cacheNames = CACHE_PRIMERA_PAGINA, allEntries = true)
+    public void importar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        importador.importar(request.getInputStream(), response.getOutputStream());
     }
 
-    // READ (lista paginada)
+    // READ (lista paginada; la primera página sin filtros sale de caché). If-None-Match -> 304: la página cacheada
+    // se compara con su propio ETag, sin consultas; las demás con solo (id, version), sin traer los mensajes
     @GetMapping
     public ResponseEntity<Page<TopicoResponseDTO>> listar(
+            TopicoFiltro filtro,
+            @PageableDefault(size = 10, sort = "fechaCreacion", direction = DESC) Pageable pageable,
+            WebRequest request
+    ) {
+        boolean condicional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+        boolean enCache = TopicoConsultas.enCache(filtro, pageable);
+        if (condicional && !enCache
+                && request.checkNotModified(TopicoVersion.etag(repository.findVersiones(filtro, pageable)))) {
+            return null; // 304
+        }
+        Page<TopicoResponseDTO> page = consultas.listar(filtro, pageable);
+        String etag = TopicoVersion.etag(page.map(d -> new TopicoVersion(d.id(), d.version(), d.fechaActualizacion())));
+        if (condicional && enCache && request.checkNotModified(etag)) {
+            return null; // 304
+        }
+        return ResponseEntity.ok().eTag(etag).body(page); // 200
+    }
+
+    // READ (lista resumida: mensaje truncado a un preview)
+    @GetMapping("/resumen")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Page<TopicoResumenDTO>> resumen(
+            TopicoFiltro filtro,
             @PageableDefault(size = 10, sort = "fechaCreacion", direction = DESC) Pageable pageable
     ) {
-        Page<TopicoResponseDTO> page = repository.findAll(pageable).map(this::toDto);
-        return ResponseEntity.ok(page); // 200
+        return ResponseEntity.ok(repository.findResumenes(filtro, pageable)); // 200
     }
 
-    // READ (detalle)
+    // READ (más vistos: conteos persistidos, con el atraso de un volcado de TopicoVistas)
+    @GetMapping("/mas-vistos")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<TopicoResumenDTO>> masVistos(@RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(repository.findMasVistos(Limit.of(Math.max(1, Math.min(size, MAX_CURSOR_SIZE))))); // 200
+    }
+
+    // READ (lista por cursor: ?cursor= para la primera página, luego el nextCursor recibido; sin COUNT)
+    @GetMapping(params = "cursor")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<TopicoResponseDTO>> listarPorCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            TopicoFiltro filtro
+    ) {
+        int limite = Math.max(1, Math.min(size, MAX_CURSOR_SIZE));
+        List<TopicoResponseDTO> filas;
+        try {
+            filas = cursor.isBlank()
+                    ? repository.findPrimeros(filtro, Limit.of(limite + 1))
+                    : repository.findSiguientes(filtro, TopicoCursor.decode(cursor), Limit.of(limite + 1));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build(); // 400 cursor mal formado
+        }
+
+        // Se pide una fila extra solo para saber si hay página siguiente
+        String next = null;
+        if (filas.size() > limite) {
+            filas = filas.subList(0, limite);
+            TopicoResponseDTO ultimo = filas.get(limite - 1);
+            next = new TopicoCursor(ultimo.fechaCreacion(), ultimo.id()).encode();
+        }
+        return ResponseEntity.ok(new CursorPage<>(filas, limite, next)); // 200
+    }
+
+    // READ (exportación completa en streaming: NDJSON o CSV, con filtros opcionales)
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            TopicoFiltro filtro,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "NDJSON") TopicoExportador.Formato formato
+    ) {
+        MediaType tipo = formato == TopicoExportador.Formato.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = out -> exportador.exportar(filtro, desde, hasta, formato, out);
+        return ResponseEntity.ok().contentType(tipo).body(body); // 200
+    }
+
+    // READ (cambios en vivo por SSE: creado / actualizado / eliminado, con los filtros de la lista).
+    // Reconectar con Last-Event-ID reanuda desde el historial; un evento "reset" pide volver a cargar la lista
+    @GetMapping(path = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> eventos(
+            TopicoFiltro filtro,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        SseEmitter emitter = feed.suscribir(filtro, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build(); // 503
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no") // nginx: sin buffer, cada evento sale al momento
+                .body(emitter); // 200
+    }
+
+    // READ (búsqueda por palabras en titulo/mensaje, ordenada por relevancia; admite los mismos filtros que la lista)
+    @GetMapping("/buscar")
+    public ResponseEntity<Page<TopicoResumenDTO>> buscar(
+            @RequestParam String q,
+            TopicoFiltro filtro,
+            @PageableDefault(size = 10) Pageable pageable
+    ) {
+        Page<TopicoIndice.Resultado> resultados = indice.buscar(q, filtro, pageable);
+        if (!resultados.hasContent()) {
+            return ResponseEntity.ok(new PageImpl<>(List.of(), pageable, resultados.getTotalElements())); // 200
+        }
+
+        Map<Long, TopicoResumenDTO> porId = repository
+                .findResumenesByIdIn(resultados.map(TopicoIndice.Resultado::id).toList()).stream()
+                .collect(Collectors.toMap(TopicoResumenDTO::id, Function.identity()));
+        List<TopicoResumenDTO> filas = resultados.stream()
+                .map(r -> porId.get(r.id()))
+                .filter(Objects::nonNull) // borrado entre la búsqueda y la lectura
+                .toList();
+        return ResponseEntity.ok(new PageImpl<>(filas, pageable, resultados.getTotalElements())); // 200
+    }
+
+    // Reconstruye el índice de búsqueda leyendo toda la tabla en streaming (solo ADMIN)
+    @PostMapping("/buscar/reindexar")
+    public ResponseEntity<TopicoIndice.Estadisticas> reindexar() {
+        TopicoIndice.Estadisticas e = indice.reconstruir();
+        if (e == null) return ResponseEntity.status(HttpStatus.CONFLICT).build(); // 409: ya hay una en curso
+        return ResponseEntity.ok(e); // 200
+    }
+
+    // READ (detalle, cacheado por id). If-None-Match / If-Modified-Since -> 304 consultando solo la versión;
+    // el ETag es el del formato que se respondería. 200 y 304 cuentan como vista: se suma en memoria y se
+    // escribe por lotes (TopicoVistas)
     @GetMapping("/{id}")
-    public ResponseEntity<TopicoResponseDTO> detalle(@PathVariable Long id) {
-        return repository.findById(id)
-                .map(topico -> ResponseEntity.ok(toDto(topico)))
+    public ResponseEntity<TopicoResponseDTO> detalle(@PathVariable Long id, WebRequest request) {
+        MediaType formato = MessageConverterConfig.formato(request.getHeader(HttpHeaders.ACCEPT));
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            TopicoVersion v = repository.findVersionById(id).orElse(null);
+            if (v == null) return ResponseEntity.notFound().build(); // 404
+            if (request.checkNotModified(v.etag(formato), v.ultimaModificacion())) {
+                vistas.registrar(id);
+                return null; // 304
+            }
+        }
+        return consultas.detalle(id)
+                .map(t -> {
+                    vistas.registrar(id);
+                    return conVersion(ResponseEntity.ok(), t, formato); // 200
+                })
                 .orElseGet(() -> ResponseEntity.notFound().build()); // 404 si no existe
     }
 
-    // UPDATE (parcial)
+    // UPDATE (parcial): un único UPDATE condicional (If-Match -> misma versión); duplicados -> 422 por el índice único
     @PutMapping("/{id}")
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_DETALLE, key = "#id"),
+            @CacheEvict(cacheNames = CACHE_PRIMERA_PAGINA, allEntries = true)
+    })
     public ResponseEntity<?> actualizar(
             @PathVariable Long id,
-            @RequestBody @Valid TopicoUpdateDTO dto
+            @RequestBody @Valid TopicoUpdateDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
-        return repository.findById(id).map(topico -> {
-            // Calcular valores efectivos para la validación de duplicados
-            String tituloEfectivo = dto.titulo() != null ? dto.titulo() : topico.getTitulo();
-            String mensajeEfectivo = dto.mensaje() != null ? dto.mensaje() : topico.getMensaje();
-
-            // Evitar duplicados (mismo titulo+mensaje en otro id)
-            if (repository.existsByTituloAndMensajeAndIdNot(tituloEfectivo, mensajeEfectivo, id)) {
-                return ResponseEntity.unprocessableEntity().build(); // 422
-            }
+        Long version;
+        try {
+            version = TopicoVersion.deIfMatch(ifMatch);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build(); // 412: ese ETag no coincide nunca
+        }
 
-            // Aplicar cambios parciales
-            if (dto.titulo() != null)  topico.setTitulo(dto.titulo());
-            if (dto.mensaje() != null) topico.setMensaje(dto.mensaje());
-            if (dto.autor() != null)   topico.setAutor(dto.autor());
-            if (dto.curso() != null)   topico.setCurso(dto.curso());
+        int filas = repository.updateParcial(id, dto.titulo(), dto.mensaje(), dto.autor(), dto.curso(),
+                version, LocalDateTime.now());
+        if (filas == 0) {
+            // Solo en el camino de error se distingue "no existe" de "otra versión"
+            return version != null && repository.existsById(id)
+                    ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build() // 412
+                    : ResponseEntity.notFound().build(); // 404
+        }
 
-            Topico guardado = repository.save(topico);
-            return ResponseEntity.ok(toDto(guardado)); // 200
-        }).orElseGet(() -> ResponseEntity.notFound().build()); // 404
+        return repository.findDtoById(id)
+                .map(t -> {
+                    eventos.publishEvent(new TopicoEvento.Actualizado(t));
+                    return conVersion(ResponseEntity.ok(), t, MessageConverterConfig.formato(accept)); // 200
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    // DELETE
+    // DELETE: un único DELETE; las filas afectadas deciden 204 o 404
     @DeleteMapping("/{id}")
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_DETALLE, key = "#id"),
+            @CacheEvict(cacheNames = CACHE_PRIMERA_PAGINA, allEntries = true)
+    })
     public ResponseEntity<Void> eliminar(@PathVariable Long id) {
-        if (!repository.existsById(id)) return ResponseEntity.notFound().build(); // 404
-        repository.deleteById(id);
+        if (repository.deleteOneById(id) == 0) return ResponseEntity.notFound().build(); // 404
+        eventos.publishEvent(new TopicoEvento.Eliminado(id));
         return ResponseEntity.noContent().build(); // 204
     }
 
-    private TopicoResponseDTO toDto(Topico t) {
+    static TopicoResponseDTO toDto(Topico t) {
         return new TopicoResponseDTO(
                 t.getId(), t.getTitulo(), t.getMensaje(),
-                t.getFechaCreacion(), StatusTopico.valueOf(t.getStatus()),
-                t.getAutor(), t.getCurso()
+                t.getFechaCreacion(), t.getStatus(),
+                t.getAutor(), t.getCurso(),
+                t.getFechaActualizacion(), t.getVersion(),
+                t.getCantidadRespuestas(), t.getFechaUltimaRespuesta()
         );
     }
+
+    /**
+     * ETag y Last-Modified calculados del propio cuerpo (coherentes aunque venga de caché). El formato se fija
+     * aquí para que la respuesta sea la representación a la que corresponde el ETag; si el Accept no admite
+     * ninguno, queda a la negociación de Spring (406).
+     */
+    private static ResponseEntity<TopicoResponseDTO> conVersion(ResponseEntity.BodyBuilder respuesta,
+                                                                TopicoResponseDTO dto, MediaType formato) {
+        TopicoVersion v = new TopicoVersion(dto.id(), dto.version(), dto.fechaActualizacion());
+        if (formato != null) respuesta.contentType(formato);
+        return respuesta.eTag(v.etag(formato)).lastModified(v.ultimaModificacion()).body(dto);
+    }
 }
\ No newline at end of file
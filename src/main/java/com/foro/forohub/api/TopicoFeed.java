@@ -0,0 +1,277 @@
+package com.foro.forohub.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import com.foro.forohub.domain.topico.StatusTopico;
+import com.foro.forohub.domain.topico.TopicoEvento;
+import com.foro.forohub.domain.topico.TopicoFiltro;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bus en proceso de los cambios de tópicos hacia los clientes SSE de GET /topicos/eventos.
+ * <p>
+ * Cada evento confirmado se serializa una sola vez, recibe un id secuencial y queda en un buffer circular
+ * con los últimos {@code historial} eventos: un cliente que reconecta con Last-Event-ID recibe lo que se perdió.
+ * Cada suscriptor tiene una cola acotada; una conexión inactiva no ocupa ningún hilo, solo su contexto async.
+ * Cuando hay eventos pendientes, un hilo virtual drena la cola y termina. Si un cliente lento llena su cola:
+ * {@code desconectar} cierra la conexión (al reconectar se pone al día desde el historial) y {@code descartar}
+ * vacía la cola y le manda un evento {@code reset} para que vuelva a pedir el listado.
+ * <p>
+ * Solo ve los cambios de esta instancia: con varias, cada una alimenta a sus propios suscriptores.
+ */
+@Slf4j
+@Component
+public class TopicoFeed {
+
+    public enum Politica { DESCONECTAR, DESCARTAR }
+
+    /** Evento ya serializado. {@code curso}/{@code status}/{@code autor} son null en las eliminaciones. */
+    private record Evento(long seq, String nombre, String json, StatusTopico status, String curso, String autor) {}
+
+    private static final Evento RESET = new Evento(-1, "reset", "{}", null, null, null);
+    private static final Evento LATIDO = new Evento(-2, null, null, null, null, null);
+
+    private final ObjectMapper mapper;
+    private final Politica politica;
+    private final int capacidad;
+    private final int maxSuscriptores;
+    private final long timeoutMs;
+
+    /** Prefijo de los ids: distingue esta ejecución de la anterior (las secuencias reinician al arrancar). */
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Evento[] historial;
+    private long ultimo; // seq del último evento; protegido por "this"
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final ExecutorService escritores = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-", 0).factory());
+    private final Counter desbordes;
+
+    public TopicoFeed(ObjectMapper mapper, MeterRegistry registry,
+                      @Value("${forohub.eventos.politica:desconectar}") String politica,
+                      @Value("${forohub.eventos.cola:256}") int capacidad,
+                      @Value("${forohub.eventos.historial:1024}") int historial,
+                      @Value("${forohub.eventos.max-suscriptores:20000}") int maxSuscriptores,
+                      @Value("${forohub.eventos.timeout:PT30M}") Duration timeout) {
+        this.mapper = mapper;
+        this.politica = Politica.valueOf(politica.trim().toUpperCase(Locale.ROOT));
+        this.capacidad = capacidad;
+        this.historial = new Evento[Math.max(1, historial)];
+        this.maxSuscriptores = maxSuscriptores;
+        this.timeoutMs = timeout.toMillis();
+        Gauge.builder("forohub.eventos.suscriptores", suscriptores, Set::size).register(registry);
+        this.desbordes = Counter.builder("forohub.eventos.desbordes")
+                .tag("politica", this.politica.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+    }
+
+    // ================= Suscripción =================
+
+    /**
+     * Abre la conexión SSE. Con {@code lastEventId} reenvía primero los eventos posteriores que sigan en el
+     * historial; si ya no están (o el id es de otra ejecución) manda {@code reset}. null = saturado (503).
+     */
+    public SseEmitter suscribir(TopicoFiltro filtro, String lastEventId) {
+        if (suscriptores.size() >= maxSuscriptores) return null;
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor s = new Suscriptor(emitter, filtro);
+        emitter.onCompletion(s::cerrar);
+        emitter.onTimeout(s::cerrar);
+        emitter.onError(ex -> s.cerrar());
+
+        // Bajo el mismo lock que publicar(): ni huecos ni duplicados entre la repetición y los eventos nuevos
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) reenviar(s, lastEventId.trim());
+            suscriptores.add(s);
+        }
+        s.programar();
+        return emitter;
+    }
+
+    public int suscriptores() {
+        return suscriptores.size();
+    }
+
+    // ================= Publicación =================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiar(TopicoEvento evento) {
+        Evento e;
+        try {
+            e = switch (evento) {
+                case TopicoEvento.Creado c -> serializar("creado", c.topico());
+                case TopicoEvento.Actualizado a -> serializar("actualizado", a.topico());
+                case TopicoEvento.Eliminado d -> new Evento(0, "eliminado",
+                        mapper.writeValueAsString(Map.of("id", d.id())), null, null, null);
+            };
+        } catch (JsonProcessingException ex) {
+            log.warn("No se pudo serializar el evento {}", evento, ex);
+            return;
+        }
+        publicar(e);
+    }
+
+    /** Asigna la secuencia, guarda en el historial y reparte; ofrecer a una cola nunca bloquea. */
+    private synchronized void publicar(Evento sinSeq) {
+        Evento e = new Evento(++ultimo, sinSeq.nombre(), sinSeq.json(), sinSeq.status(), sinSeq.curso(), sinSeq.autor());
+        historial[(int) (e.seq() % historial.length)] = e;
+        for (Suscriptor s : suscriptores) {
+            if (s.acepta(e)) s.ofrecer(e);
+        }
+    }
+
+    /** Comentario periódico: mantiene abiertas las conexiones en proxies y detecta clientes que ya no están. */
+    @Scheduled(fixedDelayString = "${forohub.eventos.latido:PT30S}", initialDelayString = "${forohub.eventos.latido:PT30S}")
+    public void latido() {
+        for (Suscriptor s : suscriptores) s.ofrecerLatido();
+    }
+
+    @PreDestroy
+    void cerrar() {
+        suscriptores.forEach(s -> s.emitter.complete());
+        escritores.shutdownNow();
+    }
+
+    // ================= Helpers =================
+
+    private Evento serializar(String nombre, TopicoResponseDTO t) throws JsonProcessingException {
+        return new Evento(0, nombre, mapper.writeValueAsString(t), t.status(), t.curso(), t.autor());
+    }
+
+    /** Llamado con el lock tomado: encola lo posterior a lastEventId o un reset si no se puede reconstruir. */
+    private void reenviar(Suscriptor s, String lastEventId) {
+        long desde = seqDe(lastEventId);
+        long primero = Math.max(1, ultimo - historial.length + 1);
+        if (desde < 0 || desde > ultimo || desde + 1 < primero || ultimo - desde > capacidad) {
+            s.cola.offer(RESET);
+            return;
+        }
+        for (long seq = desde + 1; seq <= ultimo; seq++) {
+            Evento e = historial[(int) (seq % historial.length)];
+            if (s.acepta(e)) s.cola.offer(e);
+        }
+    }
+
+    /** "epoca-seq" emitido por esta ejecución -> seq; -1 si es de otra ejecución o está mal formado. */
+    private long seqDe(String id) {
+        int sep = id.lastIndexOf('-');
+        if (sep < 0 || !id.substring(0, sep).equals(epoca)) return -1;
+        try {
+            return Long.parseLong(id.substring(sep + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private final class Suscriptor {
+
+        private final SseEmitter emitter;
+        private final TopicoFiltro filtro;
+        private final ArrayBlockingQueue<Evento> cola = new ArrayBlockingQueue<>(capacidad);
+        private final AtomicBoolean drenando = new AtomicBoolean();
+        private volatile boolean cerrado;
+
+        Suscriptor(SseEmitter emitter, TopicoFiltro filtro) {
+            this.emitter = emitter;
+            this.filtro = filtro;
+        }
+
+        /** Las eliminaciones no traen curso/status: llegan a todos y el cliente ignora ids que no tiene. */
+        boolean acepta(Evento e) {
+            if (e.status() == null && e.curso() == null && e.autor() == null) return true;
+            return (filtro.status() == null || filtro.status() == e.status())
+                    && (filtro.curso() == null || filtro.curso().equals(e.curso()))
+                    && (filtro.autor() == null || filtro.autor().equals(e.autor()));
+        }
+
+        void ofrecer(Evento e) {
+            if (cerrado) return;
+            if (!cola.offer(e)) {
+                desbordes.increment();
+                if (politica == Politica.DESCONECTAR) {
+                    cerrar();
+                    // Fuera del lock de publicar(): complete() espera a un send() que puede estar trabado en el socket.
+                    // El cliente reconecta con Last-Event-ID y se pone al día desde el historial
+                    escritores.execute(emitter::complete);
+                    return;
+                }
+                cola.clear();
+                cola.offer(RESET);
+            }
+            programar();
+        }
+
+        void ofrecerLatido() {
+            if (!cerrado && cola.isEmpty() && cola.offer(LATIDO)) programar();
+        }
+
+        /** Un solo escritor por suscriptor a la vez, y solo mientras haya eventos pendientes. */
+        void programar() {
+            if (!cerrado && !cola.isEmpty() && drenando.compareAndSet(false, true)) {
+                try {
+                    escritores.execute(this::drenar);
+                } catch (RuntimeException ex) {
+                    drenando.set(false); // apagando
+                }
+            }
+        }
+
+        private void drenar() {
+            try {
+                List<Evento> lote = new ArrayList<>();
+                while (!cerrado && cola.drainTo(lote) > 0) {
+                    for (Evento e : lote) enviar(e);
+                    lote.clear();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                cerrar(); // cliente desconectado o emitter ya completado
+                return;
+            } finally {
+                drenando.set(false);
+            }
+            programar(); // lo que llegó entre el último drainTo y soltar el flag
+        }
+
+        private void enviar(Evento e) throws IOException {
+            if (e == LATIDO) {
+                emitter.send(SseEmitter.event().comment(""));
+            } else if (e == RESET) {
+                emitter.send(SseEmitter.event().name(RESET.nombre()).data(RESET.json(), MediaType.APPLICATION_JSON));
+            } else {
+                emitter.send(SseEmitter.event()
+                        .id(epoca + "-" + e.seq())
+                        .name(e.nombre())
+                        .data(e.json(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        void cerrar() {
+            cerrado = true;
+            suscriptores.remove(this);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.foro.forohub.api.error;
 
+import com.foro.forohub.domain.topico.Topico;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
@@ -76,10 +77,14 @@ public class ApiExceptionHandler {
         return build(HttpStatus.NOT_FOUND, "Recurso no encontrado", ex.getMessage(), req, null);
     }
 
-    // ===== 409 - Conflicto de integridad (FK/UK, etc.) =====
+    // ===== 409 - Conflicto de integridad (FK/UK, etc.) / 422 - Tópico duplicado =====
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse> handleDataIntegrity(DataIntegrityViolationException ex,
                                                              HttpServletRequest req) {
+        if (esTopicoDuplicado(ex)) {
+            return build(HttpStatus.UNPROCESSABLE_ENTITY, "Tópico duplicado",
+                    "Ya existe un tópico con el mismo título y mensaje", req, null);
+        }
         return build(HttpStatus.CONFLICT, "Conflicto de integridad de datos", ex.getMostSpecificCause().getMessage(), req, null);
     }
 
@@ -113,6 +118,16 @@ public class ApiExceptionHandler {
         return ResponseEntity.status(status).body(body);
     }
 
+    private static boolean esTopicoDuplicado(DataIntegrityViolationException ex) {
+        String uk = Topico.UK_HASH_CONTENIDO.toLowerCase();
+        if (ex.getCause() instanceof org.hibernate.exception.ConstraintViolationException cve && cve.getConstraintName() != null
+                && cve.getConstraintName().toLowerCase().contains(uk)) {
+            return true;
+        }
+        String msg = ex.getMostSpecificCause().getMessage();
+        return msg != null && msg.toLowerCase().contains(uk);
+    }
+
     // DTOs de respuesta (inmutables)
     public record ErrorResponse(
             String timestamp,
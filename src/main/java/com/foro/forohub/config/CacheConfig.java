@@ -0,0 +1,30 @@
+package com.foro.forohub.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Caché en memoria (Caffeine) para las lecturas calientes de tópicos.
+ * Tamaño, expiración y estadísticas se configuran con spring.cache.caffeine.spec.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Los evict dentro de una transacción se aplican recién tras el commit (nunca antes de que la BD cambie). */
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.cache-names}") List<String> nombres,
+                                     @Value("${spring.cache.caffeine.spec}") String spec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCacheSpecification(spec);
+        caffeine.setCacheNames(nombres); // nombres fijos: así se registran sus métricas al arrancar
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,79 @@
+package com.foro.forohub.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primaria + réplica de lectura, solo si hay {@code forohub.datasource.replica.url}; sin ella queda el
+ * DataSource único de Spring Boot. Cada una tiene su pool Hikari ("primaria" / "replica"), con sus propias
+ * métricas hikaricp_* etiquetadas por pool. El resto de la aplicación (JPA, JdbcTemplate, Flyway) usa el
+ * DataSource enrutado.
+ */
+@Configuration
+@ConditionalOnProperty(name = "forohub.datasource.replica.url")
+public class DataSourceConfig implements WebMvcConfigurer {
+
+    private final Duration ventanaPropiasEscrituras;
+    private final long maxUsuariosFijados;
+
+    public DataSourceConfig(
+            @Value("${forohub.datasource.leer-propias-escrituras:PT5S}") Duration ventanaPropiasEscrituras,
+            @Value("${forohub.datasource.max-usuarios-fijados:100000}") long maxUsuariosFijados
+    ) {
+        this.ventanaPropiasEscrituras = ventanaPropiasEscrituras;
+        this.maxUsuariosFijados = maxUsuariosFijados;
+    }
+
+    /** spring.datasource.* y spring.datasource.hikari.* configuran la primaria, como sin réplica. */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primaria");
+        return ds;
+    }
+
+    /** Usuario y contraseña por defecto los de la primaria; forohub.datasource.replica.hikari.* ajusta su pool. */
+    @Bean
+    @ConfigurationProperties("forohub.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${forohub.datasource.replica.url}") String url,
+            @Value("${forohub.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${forohub.datasource.replica.password:${spring.datasource.password:}}") String password
+    ) {
+        HikariDataSource ds = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password)
+                .build();
+        ds.setPoolName("replica");
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primariaDataSource") DataSource primaria,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new RoutingDataSource(primaria, replica));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!ventanaPropiasEscrituras.isZero()) {
+            registry.addInterceptor(new ReadYourWritesInterceptor(ventanaPropiasEscrituras, maxUsuariosFijados));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.foro.forohub.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos binarios por negociación de contenido: {@code Accept: application/cbor} o
+ * {@code application/x-jackson-smile} devuelven lo mismo que el JSON (mismos DTOs y envoltorio de página),
+ * sin repetir nombres de campo como texto. JSON sigue siendo el formato por defecto.
+ * <p>
+ * Spring MVC ya los registraría solo con tener las librerías, pero con un ObjectMapper propio; estos usan el
+ * builder de Spring Boot, así heredan los módulos (fechas, páginas) y las opciones spring.jackson.*.
+ * <p>
+ * Como la misma URL tiene tres representaciones, las respuestas bajo /topicos llevan {@code Vary: Accept}
+ * (también los 304): un caché compartido no debe entregar el CBOR guardado a quien pidió JSON.
+ */
+@Configuration
+public class MessageConverterConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /** Formatos negociables; ante un empate (p. ej. un Accept comodín) gana el primero. */
+    public static final List<MediaType> FORMATOS =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/topicos", "/topicos/**");
+    }
+
+    /**
+     * Formato que corresponde a un Accept, con las mismas reglas que la negociación de Spring (calidad del rango
+     * más específico que lo incluye). Permite fijar el formato antes de serializar, p. ej. para calcular un ETag
+     * por representación al responder 304. Sin Accept, JSON; null si ninguno es aceptable.
+     */
+    public static MediaType formato(String accept) {
+        if (accept == null || accept.isBlank()) return MediaType.APPLICATION_JSON;
+        List<MediaType> aceptados;
+        try {
+            aceptados = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return null;
+        }
+        MediaType mejor = null;
+        double calidadMejor = 0;
+        for (MediaType f : FORMATOS) {
+            double calidad = calidad(f, aceptados);
+            if (calidad > calidadMejor) {
+                mejor = f;
+                calidadMejor = calidad;
+            }
+        }
+        return mejor;
+    }
+
+    // ================= Helpers =================
+
+    private static double calidad(MediaType formato, List<MediaType> aceptados) {
+        MediaType rango = null;
+        for (MediaType a : aceptados) {
+            if (a.includes(formato) && (rango == null || especificidad(a) > especificidad(rango))) rango = a;
+        }
+        return rango == null ? 0 : rango.getQualityValue();
+    }
+
+    private static int especificidad(MediaType rango) {
+        return rango.isWildcardType() ? 0 : rango.isWildcardSubtype() ? 1 : 2;
+    }
+}
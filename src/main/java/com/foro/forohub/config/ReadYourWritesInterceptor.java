@@ -0,0 +1,69 @@
+package com.foro.forohub.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Tras una escritura correcta (POST/PUT/PATCH/DELETE con status &lt; 400), las lecturas del mismo usuario
+ * (o IP, sin token) van a la primaria durante {@code ventana}: así no ve datos previos a su propio cambio
+ * mientras la réplica se pone al día. La marca vive en memoria de esta instancia.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final Cache<String, Boolean> recientes;
+
+    public ReadYourWritesInterceptor(Duration ventana, long maxUsuarios) {
+        this.recientes = Caffeine.newBuilder()
+                .expireAfterWrite(ventana)
+                .maximumSize(maxUsuarios)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (recientes.getIfPresent(clave(request)) != null) RoutingDataSource.forzarPrimaria(true);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        try {
+            if (ex == null && response.getStatus() < 400 && esEscritura(request.getMethod())) {
+                recientes.put(clave(request), Boolean.TRUE);
+            }
+        } finally {
+            RoutingDataSource.forzarPrimaria(false);
+        }
+    }
+
+    /** SSE / streaming: el hilo de la petición se libera sin pasar por afterCompletion. */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RoutingDataSource.forzarPrimaria(false);
+    }
+
+    // ================= Helpers =================
+
+    private static boolean esEscritura(String method) {
+        return switch (method) {
+            case "POST", "PUT", "PATCH", "DELETE" -> true;
+            default -> false;
+        };
+    }
+
+    private static String clave(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "u:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
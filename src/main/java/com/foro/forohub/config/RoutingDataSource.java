@@ -0,0 +1,60 @@
+package com.foro.forohub.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Elige el pool por transacción: {@code @Transactional(readOnly = true)} (y las lecturas de los repositorios,
+ * que Spring Data ya marca así) van a la réplica; las escrituras y el código sin transacción, a la primaria.
+ * Debe ir envuelto en un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: el
+ * gestor de transacciones pide la conexión antes de publicar el flag read-only, y el proxy la obtiene recién
+ * en la primera sentencia, cuando el flag ya está puesto.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino { PRIMARIA, REPLICA }
+
+    /** Read-your-writes: el hilo actual lee de la primaria aunque la transacción sea read-only. */
+    private static final ThreadLocal<Boolean> PRIMARIA_FORZADA = new ThreadLocal<>();
+
+    public RoutingDataSource(DataSource primaria, DataSource replica) {
+        setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+
+    public static void forzarPrimaria(boolean forzar) {
+        if (forzar) PRIMARIA_FORZADA.set(Boolean.TRUE);
+        else PRIMARIA_FORZADA.remove();
+    }
+
+    /**
+     * Ejecuta {@code lectura} contra la primaria aunque la transacción sea read-only, y deja el hilo como estaba
+     * (una petición ya fijada por read-your-writes sigue fijada). Debe envolver la primera sentencia de la
+     * transacción: si ya tomó una conexión de la réplica, la sigue usando.
+     */
+    public static <T> T enPrimaria(Supplier<T> lectura) {
+        Boolean previo = PRIMARIA_FORZADA.get();
+        PRIMARIA_FORZADA.set(Boolean.TRUE);
+        try {
+            return lectura.get();
+        } finally {
+            if (previo == null) PRIMARIA_FORZADA.remove();
+        }
+    }
+
+    public static Destino destinoActual() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARIA_FORZADA.get() == null
+                ? Destino.REPLICA
+                : Destino.PRIMARIA;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return destinoActual();
+    }
+}
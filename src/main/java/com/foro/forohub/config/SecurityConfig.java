@@ -1,20 +1,32 @@
 package com.foro.forohub.config;
 
 import com.foro.forohub.security.JwtAuthFilter;
+import com.foro.forohub.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -22,10 +34,54 @@ public class SecurityConfig {
 
     // Usa @Lazy por si acaso el filtro termina dependiendo de beans que esta config crea
     private final @Lazy JwtAuthFilter jwtAuthFilter;
+    private final @Lazy RateLimitFilter rateLimitFilter;
+
+    /** Puerto real de actuator (management.server.port); -1 si comparte el de la aplicación. */
+    private volatile int puertoGestion = -1;
+
+    @EventListener
+    public void alIniciarServidor(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            puertoGestion = event.getWebServer().getPort();
+        }
+    }
+
+    /**
+     * Hashes con prefijo {id}: {@code forohub.password.encoder} elige el algoritmo de los hashes nuevos.
+     * Los hashes viejos (BCrypt sin prefijo, otro algoritmo o menor costo) se re-hashean en el siguiente login
+     * correcto vía {@link org.springframework.security.core.userdetails.UserDetailsPasswordService}.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${forohub.password.encoder:bcrypt}") String encoder,
+            @Value("${forohub.password.bcrypt-strength:10}") int bcryptStrength
+    ) {
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", new BCryptPasswordEncoder(bcryptStrength),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+                "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoder, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder()); // hashes guardados antes del prefijo
+        return delegating;
+    }
 
+    /**
+     * Pool dedicado al login: el hash de la contraseña es CPU pura y no debe competir con los hilos de Tomcat.
+     * Cola acotada; al llenarse AuthController responde 503 con Retry-After.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public ThreadPoolTaskExecutor loginExecutor(
+            @Value("${forohub.login.hilos:0}") int hilos,
+            @Value("${forohub.login.cola:100}") int cola
+    ) {
+        int n = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(n);
+        executor.setMaxPoolSize(n);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("login-");
+        return executor;
     }
 
     @Bean
@@ -39,10 +95,20 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**", "/actuator/health").permitAll()
+                        // El despacho ASYNC (StreamingResponseBody) reanuda una petición ya autorizada en REQUEST
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/auth/**", "/.well-known/jwks.json", "/livez", "/readyz",
+                                "/actuator/health", "/actuator/health/**").permitAll()
+                        // Métricas sin token solo en el puerto de gestión, que no se publica fuera de la red interna
+                        .requestMatchers(req -> req.getLocalPort() == puertoGestion
+                                && "/actuator/prometheus".equals(req.getRequestURI())).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/topicos/buscar/reindexar").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Tras autenticar: así el límite va por usuario y no por IP cuando hay token
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,38 @@
+package com.foro.forohub.domain.respuesta;
+
+import com.foro.forohub.domain.topico.Topico;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "respuestas",
+        indexes = @Index(name = "idx_respuestas_topico_fecha", columnList = "topico_id, fecha_creacion, id"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class Respuesta {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // LAZY y sin lado inverso en Topico: para crear basta una referencia (getReference), sin SELECT del tópico
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "topico_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_respuestas_topico"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Topico topico;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String mensaje;
+
+    @Column(nullable = false)
+    private String autor;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private LocalDateTime fechaCreacion = LocalDateTime.now();
+}
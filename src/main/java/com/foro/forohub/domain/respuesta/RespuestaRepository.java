@@ -0,0 +1,40 @@
+package com.foro.forohub.domain.respuesta;
+
+import com.foro.forohub.api.dto.RespuestaResponseDTO;
+import com.foro.forohub.domain.topico.TopicoCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface RespuestaRepository extends JpaRepository<Respuesta, Long> {
+
+    // r.topico.id es la columna topico_id: ninguna de estas consultas hace JOIN con topicos
+    String DTO = "new com.foro.forohub.api.dto.RespuestaResponseDTO("
+            + "r.id, r.topico.id, r.mensaje, r.autor, r.fechaCreacion)";
+
+    @Query("select " + DTO + " from Respuesta r where r.topico.id = :topicoId and r.id = :id")
+    Optional<RespuestaResponseDTO> findDto(Long topicoId, Long id);
+
+    // ===== Paginación por cursor en orden cronológico, sobre idx_respuestas_topico_fecha =====
+    @Query("select " + DTO + " from Respuesta r where r.topico.id = :topicoId"
+            + " order by r.fechaCreacion, r.id")
+    List<RespuestaResponseDTO> findPrimeras(Long topicoId, Limit limit);
+
+    @Query("select " + DTO + " from Respuesta r where r.topico.id = :topicoId"
+            + " and (r.fechaCreacion > :fecha or (r.fechaCreacion = :fecha and r.id > :id))"
+            + " order by r.fechaCreacion, r.id")
+    List<RespuestaResponseDTO> findSiguientes(Long topicoId, LocalDateTime fecha, Long id, Limit limit);
+
+    @Modifying
+    @Query("delete from Respuesta r where r.topico.id = :topicoId and r.id = :id")
+    int deleteOne(Long topicoId, Long id);
+
+    default List<RespuestaResponseDTO> findSiguientes(Long topicoId, TopicoCursor c, Limit limit) {
+        return findSiguientes(topicoId, c.fechaCreacion(), c.id(), limit);
+    }
+}
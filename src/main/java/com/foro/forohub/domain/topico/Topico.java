@@ -2,16 +2,32 @@ package com.foro.forohub.domain.topico;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Entity
 @Table(name = "topicos",
-        uniqueConstraints = @UniqueConstraint(name="uk_topicos_titulo_mensaje", columnNames = {"titulo","mensaje"}))
+        uniqueConstraints = @UniqueConstraint(name = Topico.UK_HASH_CONTENIDO, columnNames = {"hash_contenido"}),
+        indexes = {
+                @Index(name = "idx_topicos_fecha_creacion_id", columnList = "fecha_creacion, id"),
+                @Index(name = "idx_topicos_status_fecha", columnList = "status, fecha_creacion, id"),
+                @Index(name = "idx_topicos_curso_fecha", columnList = "curso, fecha_creacion, id"),
+                @Index(name = "idx_topicos_autor_fecha", columnList = "autor, fecha_creacion, id"),
+                @Index(name = "idx_topicos_vistas", columnList = "vistas, id")
+        })
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Topico {
 
+    /** Índice único del hash de contenido: su violación significa "tópico duplicado". */
+    public static final String UK_HASH_CONTENIDO = "uk_topicos_hash_contenido";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -26,12 +42,69 @@ public class Topico {
     private LocalDateTime fechaCreacion = LocalDateTime.now();
 
     @Builder.Default
-    @Column(nullable = false)
-    private String status = "ABIERTO";
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private StatusTopico status = StatusTopico.ABIERTO;
 
     @Column(nullable = false)
     private String autor;
 
     @Column(nullable = false)
     private String curso;
-}
\ No newline at end of file
+
+    // Se incrementa en cada escritura (también en el UPDATE nativo): es la base del ETag y del If-Match
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    // SHA-256 (hex) de titulo + '\n' + mensaje: la detección de duplicados es una búsqueda puntual por índice
+    @Column(name = "hash_contenido", length = 64, nullable = false)
+    private String hashContenido;
+
+    // Desnormalizados: los mantiene RespuestaController en la misma transacción que el alta/baja de la respuesta.
+    // Sin @OneToMany a propósito: los listados leen el resumen de respuestas en la fila del tópico.
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "cantidad_respuestas", nullable = false)
+    private Integer cantidadRespuestas = 0;
+
+    @Column(name = "fecha_ultima_respuesta")
+    private LocalDateTime fechaUltimaRespuesta;
+
+    // Lo escribe TopicoVistas por lotes (UPDATE nativo, sin tocar la versión): no forma parte del ETag
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long vistas = 0L;
+
+    @PrePersist
+    void alCrear() {
+        this.hashContenido = hashDe(titulo, mensaje);
+        this.fechaActualizacion = fechaCreacion;
+    }
+
+    @PreUpdate
+    void alActualizar() {
+        this.hashContenido = hashDe(titulo, mensaje);
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
+    /**
+     * Mismo cálculo que {@code SHA2(CONCAT(titulo, CHAR(10), mensaje), 256)} en MySQL,
+     * que es lo que usan el backfill de filas existentes (V5) y {@link TopicoRepository#updateParcial}.
+     */
+    public static String hashDe(String titulo, String mensaje) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(titulo.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) '\n');
+            md.update(mensaje.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+}
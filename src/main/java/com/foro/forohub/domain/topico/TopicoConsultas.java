@@ -0,0 +1,51 @@
+package com.foro.forohub.domain.topico;
+
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import com.foro.forohub.config.RoutingDataSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Lecturas cacheadas de tópicos: el detalle por id y la primera página sin filtros.
+ * Las escrituras de TopicoController invalidan estas entradas con @CacheEvict.
+ * <p>
+ * Se llenan siempre desde la primaria: una lectura de la réplica atrasada justo después del evict volvería a
+ * cachear la fila vieja hasta que expire, para todos (la caché responde antes que el pin de read-your-writes).
+ */
+@Component
+public class TopicoConsultas {
+
+    public static final String CACHE_DETALLE = "topicos";
+    public static final String CACHE_PRIMERA_PAGINA = "topicos-primera-pagina";
+
+    private final TopicoRepository repository;
+
+    public TopicoConsultas(TopicoRepository repository) {
+        this.repository = repository;
+    }
+
+    /** Los 404 no se cachean: un id inexistente puede crearse después. */
+    @Cacheable(cacheNames = CACHE_DETALLE, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<TopicoResponseDTO> detalle(Long id) {
+        return RoutingDataSource.enPrimaria(() -> repository.findDtoById(id));
+    }
+
+    /** Solo se cachea la página 0 sin filtros ({@link #enCache}); la clave incluye tamaño y orden. */
+    @Cacheable(cacheNames = CACHE_PRIMERA_PAGINA, key = "#pageable",
+            condition = "T(com.foro.forohub.domain.topico.TopicoConsultas).enCache(#filtro, #pageable)")
+    @Transactional(readOnly = true)
+    public Page<TopicoResponseDTO> listar(TopicoFiltro filtro, Pageable pageable) {
+        return RoutingDataSource.enPrimaria(() -> repository.findAllDto(filtro, pageable));
+    }
+
+    /** Si {@link #listar} sale de caché para esa página: entonces leerla no cuesta ninguna consulta. */
+    public static boolean enCache(TopicoFiltro filtro, Pageable pageable) {
+        return pageable.getPageNumber() == 0 && filtro.vacio();
+    }
+}
@@ -0,0 +1,31 @@
+package com.foro.forohub.domain.topico;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de lectura para la paginación por cursor (keyset) sobre {@code (fecha_creacion, id)}:
+ * la usan los tópicos y, dentro de un tópico, sus respuestas.
+ * Se entrega al cliente como un token opaco en Base64 URL-safe.
+ */
+public record TopicoCursor(LocalDateTime fechaCreacion, Long id) {
+
+    public String encode() {
+        String raw = fechaCreacion + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodifica un token emitido por {@link #encode()}; lanza IllegalArgumentException si está mal formado. */
+    public static TopicoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("Cursor inválido");
+            return new TopicoCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Cursor inválido", ex);
+        }
+    }
+}
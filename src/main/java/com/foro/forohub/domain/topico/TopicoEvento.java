@@ -0,0 +1,22 @@
+package com.foro.forohub.domain.topico;
+
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+
+/**
+ * Cambios de tópicos publicados con ApplicationEventPublisher. Los consumidores usan
+ * {@code @TransactionalEventListener}: solo ven cambios confirmados (o inmediatos si no hay transacción).
+ */
+public sealed interface TopicoEvento {
+
+    Long id();
+
+    record Creado(TopicoResponseDTO topico) implements TopicoEvento {
+        public Long id() { return topico.id(); }
+    }
+
+    record Actualizado(TopicoResponseDTO topico) implements TopicoEvento {
+        public Long id() { return topico.id(); }
+    }
+
+    record Eliminado(Long id) implements TopicoEvento {}
+}
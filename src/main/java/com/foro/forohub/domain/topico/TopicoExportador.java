@@ -0,0 +1,112 @@
+package com.foro.forohub.domain.topico;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Exportación completa de tópicos en NDJSON o CSV. Recorre un cursor JDBC de solo avance
+ * y escribe cada fila directamente en la salida: no hay entidades ni persistence context,
+ * así que el heap se mantiene plano sin importar el tamaño de la tabla.
+ * Corre en una transacción read-only para que, con réplica configurada, el recorrido completo no cargue la primaria.
+ */
+@Component
+public class TopicoExportador {
+
+    public enum Formato { NDJSON, CSV }
+
+    private static final String COLUMNAS = "id, titulo, mensaje, fecha_creacion, status, autor, curso, fecha_actualizacion, version,"
+            + " cantidad_respuestas, fecha_ultima_respuesta";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate lectura;
+    private final ObjectWriter writer;
+
+    /**
+     * @param fetchSize filas por viaje al servidor. Con MySQL, Integer.MIN_VALUE activa el streaming fila a fila
+     *                  de Connector/J (un valor positivo sin useCursorFetch=true cargaría todo el resultado en memoria).
+     */
+    public TopicoExportador(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper mapper,
+                            @Value("${forohub.exportacion.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.writer = mapper.writerFor(TopicoResponseDTO.class);
+    }
+
+    public void exportar(TopicoFiltro filtro, LocalDateTime desde, LocalDateTime hasta,
+                         Formato formato, OutputStream out) throws IOException {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNAS + " FROM topicos WHERE 1 = 1");
+        if (filtro.status() != null) { sql.append(" AND status = ?"); args.add(filtro.status().name()); }
+        if (filtro.curso() != null)  { sql.append(" AND curso = ?");  args.add(filtro.curso()); }
+        if (filtro.autor() != null)  { sql.append(" AND autor = ?");  args.add(filtro.autor()); }
+        if (desde != null) { sql.append(" AND fecha_creacion >= ?"); args.add(Timestamp.valueOf(desde)); }
+        if (hasta != null) { sql.append(" AND fecha_creacion < ?");  args.add(Timestamp.valueOf(hasta)); }
+        sql.append(" ORDER BY id");
+
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (formato == Formato.CSV) w.write(COLUMNAS.replace(" ", "") + "\n");
+
+        lectura.executeWithoutResult(tx -> jdbc.query(sql.toString(), rs -> {
+            try {
+                if (formato == Formato.CSV) escribirCsv(rs, w);
+                else escribirNdjson(rs, w);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex); // el cliente cortó la descarga: se cierra el cursor
+            }
+        }, args.toArray()));
+        w.flush();
+    }
+
+    // ================= Helpers =================
+
+    private void escribirNdjson(ResultSet rs, Writer w) throws SQLException, IOException {
+        TopicoResponseDTO dto = new TopicoResponseDTO(
+                rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getTimestamp(4).toLocalDateTime(), StatusTopico.valueOf(rs.getString(5)),
+                rs.getString(6), rs.getString(7),
+                rs.getTimestamp(8).toLocalDateTime(), rs.getLong(9),
+                rs.getInt(10), fecha(rs.getTimestamp(11))
+        );
+        w.write(writer.writeValueAsString(dto));
+        w.write('\n');
+    }
+
+    private static void escribirCsv(ResultSet rs, Writer w) throws SQLException, IOException {
+        w.write(Long.toString(rs.getLong(1)));
+        for (int col = 2; col <= 11; col++) {
+            w.write(',');
+            w.write(csv(col == 4 || col == 8 || col == 11 ? Objects.toString(fecha(rs.getTimestamp(col)), null) : rs.getString(col)));
+        }
+        w.write('\n');
+    }
+
+    private static LocalDateTime fecha(Timestamp ts) {
+        return ts == null ? null : ts.toLocalDateTime();
+    }
+
+    /** Campo CSV (RFC 4180): entre comillas solo si contiene separador, comillas o saltos de línea. */
+    private static String csv(String v) {
+        if (v == null) return "";
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+}
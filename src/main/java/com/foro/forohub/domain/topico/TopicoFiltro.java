@@ -0,0 +1,12 @@
+package com.foro.forohub.domain.topico;
+
+/** Filtros opcionales del listado de tópicos (query params de GET /topicos). Null = sin filtrar. */
+public record TopicoFiltro(
+        StatusTopico status,
+        String curso,
+        String autor
+) {
+    public boolean vacio() {
+        return status == null && curso == null && autor == null;
+    }
+}
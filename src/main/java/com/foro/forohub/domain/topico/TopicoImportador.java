@@ -0,0 +1,237 @@
+package com.foro.forohub.domain.topico;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foro.forohub.api.dto.TopicoCreateDTO;
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Importación masiva de tópicos desde NDJSON o un arreglo JSON de {@link TopicoCreateDTO}.
+ * Lee la entrada en streaming, valida cada fila e inserta por lotes con JDBC batch
+ * (IDENTITY impide que Hibernate agrupe los inserts). Memoria constante: solo se retiene el lote
+ * en curso; el resultado de cada fila se escribe como NDJSON al terminar su lote.
+ * <p>
+ * Con {@code rewriteBatchedStatements} el driver no informa filas por sentencia, así que el resultado no sale
+ * de los contadores del batch: tras insertar se releen los hashes del lote y solo cuenta como ACEPTADO la fila
+ * que lleva la marca de este lote (autor, curso y fecha de creación); si otro proceso insertó el mismo
+ * contenido entretanto, la fila es DUPLICADO. No se usa IGNORE para que un valor que la columna no admite
+ * (truncado, NULL) falle en vez de quedar como aviso: el lote se revierte y se reintenta fila a fila.
+ */
+@Component
+public class TopicoImportador {
+
+    public enum Resultado { ACEPTADO, DUPLICADO, INVALIDO }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ResultadoFila(long fila, Resultado resultado, Map<String, String> errores) {}
+
+    public record Resumen(long aceptados, long duplicados, long invalidos) {}
+
+    private static final String INSERT = "INSERT INTO topicos "
+            + "(titulo, mensaje, fecha_creacion, fecha_actualizacion, version, status, autor, curso, hash_contenido)"
+            + " VALUES (?, ?, ?, ?, 0, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbc;
+    private final TopicoRepository repository;
+    private final ApplicationEventPublisher eventos;
+    private final Validator validator;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate transaccion;
+    private final int tamanoLote;
+
+    public TopicoImportador(JdbcTemplate jdbc, TopicoRepository repository, ApplicationEventPublisher eventos,
+                            Validator validator, ObjectMapper mapper, PlatformTransactionManager transactionManager,
+                            @Value("${forohub.importacion.tamano-lote:500}") int tamanoLote) {
+        this.jdbc = jdbc;
+        this.repository = repository;
+        this.eventos = eventos;
+        this.validator = validator;
+        this.mapper = mapper;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+    }
+
+    /** Procesa toda la entrada; escribe una línea NDJSON por fila y una última con el {@link Resumen}. */
+    public Resumen importar(InputStream in, OutputStream out) throws IOException {
+        long[] totales = new long[Resultado.values().length];
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        long fila = 0;
+
+        try (MappingIterator<TopicoCreateDTO> it = mapper.readerFor(TopicoCreateDTO.class).readValues(in)) {
+            while (true) {
+                TopicoCreateDTO dto;
+                try {
+                    if (!it.hasNextValue()) break;
+                    fila++;
+                    dto = it.nextValue();
+                } catch (JsonParseException ex) {
+                    // JSON mal formado: no hay forma fiable de continuar
+                    escribir(out, invalida(fila, ex), totales);
+                    break;
+                } catch (JsonMappingException ex) {
+                    // Tipo incorrecto en la fila: MappingIterator se resincroniza en la siguiente
+                    escribir(out, invalida(fila, ex), totales);
+                    continue;
+                }
+
+                Map<String, String> errores = validar(dto);
+                if (!errores.isEmpty()) {
+                    escribir(out, new ResultadoFila(fila, Resultado.INVALIDO, errores), totales);
+                    continue;
+                }
+                lote.add(new Pendiente(fila, dto, Topico.hashDe(dto.titulo(), dto.mensaje())));
+                if (lote.size() >= tamanoLote) {
+                    insertarLote(lote, out, totales);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) insertarLote(lote, out, totales);
+        }
+
+        Resumen resumen = new Resumen(totales[0], totales[1], totales[2]);
+        out.write(mapper.writeValueAsBytes(resumen));
+        out.write('\n');
+        out.flush();
+        return resumen;
+    }
+
+    // ================= Helpers =================
+
+    private record Pendiente(long fila, TopicoCreateDTO dto, String hash) {}
+
+    private static ResultadoFila invalida(long fila, JsonProcessingException ex) {
+        return new ResultadoFila(fila, Resultado.INVALIDO, Map.of("json", String.valueOf(ex.getOriginalMessage())));
+    }
+
+    private Map<String, String> validar(TopicoCreateDTO dto) {
+        if (dto == null) return Map.of("fila", "vacía");
+        Set<ConstraintViolation<TopicoCreateDTO>> violaciones = validator.validate(dto);
+        if (violaciones.isEmpty()) return Map.of();
+        Map<String, String> errores = new TreeMap<>();
+        for (ConstraintViolation<TopicoCreateDTO> v : violaciones) {
+            errores.put(v.getPropertyPath().toString(), v.getMessage());
+        }
+        return errores;
+    }
+
+    private void insertarLote(List<Pendiente> lote, OutputStream out, long[] totales) throws IOException {
+        // Duplicados contra la tabla (una consulta por lote sobre uk_topicos_hash_contenido) y dentro del propio lote
+        Set<String> existentes = new HashSet<>(jdbc.queryForList(
+                "SELECT hash_contenido FROM topicos WHERE hash_contenido IN ("
+                        + String.join(",", Collections.nCopies(lote.size(), "?")) + ")",
+                String.class, lote.stream().map(Pendiente::hash).toArray()));
+
+        List<Pendiente> nuevos = new ArrayList<>(lote.size());
+        Resultado[] resultados = new Resultado[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            if (existentes.add(lote.get(i).hash())) {
+                nuevos.add(lote.get(i));
+                resultados[i] = Resultado.ACEPTADO;
+            } else {
+                resultados[i] = Resultado.DUPLICADO;
+            }
+        }
+
+        Map<Long, Map<String, String>> errores = Map.of();
+        if (!nuevos.isEmpty()) {
+            // Al segundo: así la marca se relee igual con DATETIME y DATETIME(6)
+            LocalDateTime ahora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            errores = insertar(nuevos, ahora);
+
+            List<String> hashes = new ArrayList<>(nuevos.size());
+            for (Pendiente p : nuevos) {
+                if (!errores.containsKey(p.fila())) hashes.add(p.hash());
+            }
+            // El batch no devuelve los ids generados ni filas fiables: se leen por hash, para decidir el resultado
+            // y para avisar a los consumidores (índice de búsqueda) solo de lo que insertó este lote
+            Map<String, TopicoResponseDTO> guardados = new HashMap<>();
+            if (!hashes.isEmpty()) {
+                for (TopicoResponseDTO t : repository.findDtoByHashContenidoIn(hashes)) {
+                    guardados.put(Topico.hashDe(t.titulo(), t.mensaje()), t);
+                }
+            }
+            for (int i = 0; i < lote.size(); i++) {
+                if (resultados[i] != Resultado.ACEPTADO) continue;
+                Pendiente p = lote.get(i);
+                TopicoResponseDTO t = guardados.get(p.hash());
+                if (errores.containsKey(p.fila())) {
+                    resultados[i] = Resultado.INVALIDO;
+                } else if (t != null && esDeEsteLote(t, p.dto(), ahora)) {
+                    eventos.publishEvent(new TopicoEvento.Creado(t));
+                } else {
+                    resultados[i] = Resultado.DUPLICADO;
+                }
+            }
+        }
+
+        for (int i = 0; i < lote.size(); i++) {
+            escribir(out, new ResultadoFila(lote.get(i).fila(), resultados[i], errores.get(lote.get(i).fila())), totales);
+        }
+        out.flush();
+    }
+
+    /**
+     * Inserta el lote en una transacción; si la base rechaza algún valor, el lote se revierte entero y se
+     * reintenta fila a fila para señalar solo las culpables. Devuelve los errores por número de fila.
+     */
+    private Map<Long, Map<String, String>> insertar(List<Pendiente> nuevos, LocalDateTime ahora) {
+        Timestamp marca = Timestamp.valueOf(ahora);
+        ParameterizedPreparedStatementSetter<Pendiente> valores = (ps, p) -> {
+            ps.setString(1, p.dto().titulo());
+            ps.setString(2, p.dto().mensaje());
+            ps.setTimestamp(3, marca);
+            ps.setTimestamp(4, marca);
+            ps.setString(5, StatusTopico.ABIERTO.name());
+            ps.setString(6, p.dto().autor());
+            ps.setString(7, p.dto().curso());
+            ps.setString(8, p.hash());
+        };
+        try {
+            transaccion.executeWithoutResult(tx -> jdbc.batchUpdate(INSERT, nuevos, nuevos.size(), valores));
+            return Map.of();
+        } catch (DataIntegrityViolationException ex) {
+            Map<Long, Map<String, String>> errores = new HashMap<>();
+            for (Pendiente p : nuevos) {
+                try {
+                    jdbc.update(INSERT, ps -> valores.setValues(ps, p));
+                } catch (DataIntegrityViolationException e) {
+                    errores.put(p.fila(), Map.of("bd", "valor no admitido por la columna"));
+                }
+            }
+            return errores;
+        }
+    }
+
+    /** La fila releída es la de este lote si lleva su marca; si no, la insertó otro proceso con el mismo contenido. */
+    private static boolean esDeEsteLote(TopicoResponseDTO t, TopicoCreateDTO dto, LocalDateTime ahora) {
+        return ahora.equals(t.fechaCreacion()) && dto.autor().equals(t.autor()) && dto.curso().equals(t.curso());
+    }
+
+    private void escribir(OutputStream out, ResultadoFila r, long[] totales) throws IOException {
+        totales[r.resultado().ordinal()]++;
+        out.write(mapper.writeValueAsBytes(r));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,408 @@
+package com.foro.forohub.domain.topico;
+
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre titulo + mensaje, con ranking BM25.
+ * Cada documento recibe un ordinal int; las posting lists son arreglos primitivos (ordinal, frecuencia)
+ * y los borrados son lápidas en un BitSet. Cuando las lápidas superan a los documentos vivos se compacta:
+ * los ordinales vivos se renumeran sin huecos, así la memoria sigue a los tópicos vivos y no al total de escrituras.
+ * Se alimenta de los {@link TopicoEvento} ya confirmados y se reconstruye leyendo la tabla en streaming.
+ */
+@Slf4j
+@Component
+public class TopicoIndice {
+
+    /** Resultado de una búsqueda: id del tópico y su puntaje BM25. */
+    public record Resultado(Long id, double puntaje) {}
+
+    /** Estadísticas del índice (para dimensionarlo y para el benchmark). {@code ordinales}: vivos + lápidas. */
+    public record Estadisticas(int documentos, int terminos, long postings, int ordinales) {}
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int PESO_TITULO = 2;
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Set<String> VACIAS = Set.of(
+            "de", "la", "el", "en", "y", "los", "las", "que", "un", "una", "por", "con",
+            "para", "del", "al", "se", "es", "no", "lo", "su", "como", "mas", "the", "and", "of", "to");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+    private final JdbcTemplate jdbc;
+    private final boolean reindexarAlIniciar;
+
+    private Estado estado = new Estado();
+    // Cambios recibidos mientras se reconstruye: se repiten sobre el índice nuevo antes de publicarlo
+    private List<Consumer<Estado>> pendientes;
+
+    public TopicoIndice(DataSource dataSource,
+                        @Value("${forohub.exportacion.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize,
+                        @Value("${forohub.busqueda.reindexar-al-iniciar:true}") boolean reindexarAlIniciar) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+        this.reindexarAlIniciar = reindexarAlIniciar;
+    }
+
+    // ================= Alimentación =================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiar(TopicoEvento evento) {
+        if (evento instanceof TopicoEvento.Eliminado e) {
+            eliminar(e.id());
+        } else if (evento instanceof TopicoEvento.Creado c) {
+            indexar(c.topico());
+        } else if (evento instanceof TopicoEvento.Actualizado a) {
+            indexar(a.topico());
+        }
+    }
+
+    public void indexar(TopicoResponseDTO t) {
+        aplicar(e -> e.agregar(t.id(), t.titulo(), t.mensaje(), t.status(), t.autor(), t.curso()));
+    }
+
+    public void eliminar(Long id) {
+        aplicar(e -> e.eliminar(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (!reindexarAlIniciar) return;
+        Thread hilo = new Thread(() -> {
+            try {
+                Estadisticas e = reconstruir();
+                if (e != null) log.info("Índice de búsqueda construido: {}", e);
+            } catch (RuntimeException ex) {
+                log.warn("No se pudo construir el índice de búsqueda al iniciar", ex);
+            }
+        }, "topicos-reindexar");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Reindexa toda la tabla en streaming sobre un índice nuevo y lo reemplaza al terminar;
+     * mientras tanto las búsquedas siguen usando el anterior.
+     *
+     * @return estadísticas del índice nuevo, o null si ya había una reconstrucción en curso
+     */
+    public Estadisticas reconstruir() {
+        if (!reconstruyendo.compareAndSet(false, true)) return null;
+        try {
+            lock.writeLock().lock();
+            try {
+                pendientes = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Estado nuevo = new Estado();
+            jdbc.query("SELECT id, titulo, mensaje, status, autor, curso FROM topicos", rs -> {
+                nuevo.agregar(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        StatusTopico.valueOf(rs.getString(4)), rs.getString(5), rs.getString(6));
+            });
+
+            lock.writeLock().lock();
+            try {
+                pendientes.forEach(op -> op.accept(nuevo));
+                nuevo.compactarSiConviene();
+                estado = nuevo;
+                return nuevo.estadisticas();
+            } finally {
+                pendientes = null;
+                lock.writeLock().unlock();
+            }
+        } finally {
+            reconstruyendo.set(false);
+        }
+    }
+
+    // ================= Consulta =================
+
+    /** Búsqueda OR de los términos de {@code q}, ordenada por BM25 (desempate: id más reciente). */
+    public Page<Resultado> buscar(String q, TopicoFiltro filtro, Pageable pageable) {
+        List<String> terminos = tokenizar(q).stream().distinct().toList();
+        if (terminos.isEmpty()) return Page.empty(pageable);
+
+        lock.readLock().lock();
+        try {
+            return estado.buscar(terminos, filtro, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Estadisticas estadisticas() {
+        lock.readLock().lock();
+        try {
+            return estado.estadisticas();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================= Helpers =================
+
+    private void aplicar(Consumer<Estado> op) {
+        lock.writeLock().lock();
+        try {
+            op.accept(estado);
+            estado.compactarSiConviene();
+            if (pendientes != null) pendientes.add(op);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Minúsculas, sin tildes, separado por todo lo que no sea letra o dígito; descarta palabras vacías. */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) return List.of();
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String t : SEPARADORES.split(normalizado)) {
+            if (t.length() > 1 && !VACIAS.contains(t)) tokens.add(t);
+        }
+        return tokens;
+    }
+
+    /** Lista de (ordinal, frecuencia) de un término, en arreglos primitivos que crecen por duplicación. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] frecuencias = new int[4];
+        int size;
+
+        void agregar(int doc, int frecuencia) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frecuencias = Arrays.copyOf(frecuencias, size * 2);
+            }
+            docs[size] = doc;
+            frecuencias[size] = frecuencia;
+            size++;
+        }
+
+        /**
+         * Quita los ordinales borrados ({@code nuevos[ord] < 0}) y renumera el resto; como la renumeración
+         * conserva el orden, la lista sigue ordenada. Devuelve false si quedó vacía.
+         */
+        boolean compactar(int[] nuevos) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int ord = nuevos[docs[i]];
+                if (ord >= 0) {
+                    docs[n] = ord;
+                    frecuencias[n++] = frecuencias[i];
+                }
+            }
+            size = n;
+            if (docs.length > Math.max(4, n * 2)) {
+                docs = Arrays.copyOf(docs, Math.max(4, n));
+                frecuencias = Arrays.copyOf(frecuencias, Math.max(4, n));
+            }
+            return n > 0;
+        }
+    }
+
+    /** Contenido del índice. No es thread-safe: TopicoIndice lo protege con el ReadWriteLock. */
+    private static final class Estado {
+        static final int CAPACIDAD_INICIAL = 1024;
+
+        final Map<String, Postings> terminos = new HashMap<>();
+        final Map<Long, Integer> ordinales = new HashMap<>();
+        Map<String, String> valores = new HashMap<>(); // comparte las instancias de curso/autor repetidas
+        BitSet vivos = new BitSet();
+        long[] ids = new long[CAPACIDAD_INICIAL];
+        int[] longitudes = new int[CAPACIDAD_INICIAL];
+        StatusTopico[] status = new StatusTopico[CAPACIDAD_INICIAL];
+        String[] cursos = new String[CAPACIDAD_INICIAL];
+        String[] autores = new String[CAPACIDAD_INICIAL];
+        int siguiente;
+        int documentos;
+        int muertos;
+        long longitudTotal;
+
+        void agregar(long id, String titulo, String mensaje, StatusTopico st, String autor, String curso) {
+            eliminar(id);
+            Map<String, Integer> frecuencias = new HashMap<>();
+            for (String t : tokenizar(titulo)) frecuencias.merge(t, PESO_TITULO, Integer::sum);
+            for (String t : tokenizar(mensaje)) frecuencias.merge(t, 1, Integer::sum);
+
+            int ord = siguiente++;
+            if (ord == ids.length) crecer();
+            int longitud = 0;
+            for (Map.Entry<String, Integer> e : frecuencias.entrySet()) {
+                terminos.computeIfAbsent(e.getKey(), k -> new Postings()).agregar(ord, e.getValue());
+                longitud += e.getValue();
+            }
+            ids[ord] = id;
+            longitudes[ord] = longitud;
+            status[ord] = st;
+            cursos[ord] = curso == null ? null : valores.computeIfAbsent(curso, k -> k);
+            autores[ord] = autor == null ? null : valores.computeIfAbsent(autor, k -> k);
+            vivos.set(ord);
+            ordinales.put(id, ord);
+            documentos++;
+            longitudTotal += longitud;
+        }
+
+        void eliminar(long id) {
+            Integer ord = ordinales.remove(id);
+            if (ord == null) return;
+            vivos.clear(ord);
+            documentos--;
+            muertos++;
+            longitudTotal -= longitudes[ord];
+        }
+
+        /**
+         * Cuando hay más lápidas que documentos vivos, los vivos pasan a los ordinales 0..documentos-1 (en el mismo
+         * orden) y los arreglos se achican: {@code siguiente} queda acotado por ~2x los documentos vivos y los
+         * curso/autor de los borrados dejan de estar referenciados. Costo lineal en postings, amortizado entre
+         * al menos tantas escrituras como documentos hay.
+         */
+        void compactarSiConviene() {
+            if (muertos < CAPACIDAD_INICIAL || muertos < documentos) return;
+
+            int[] nuevos = new int[siguiente];
+            int n = 0;
+            for (int ord = 0; ord < siguiente; ord++) nuevos[ord] = vivos.get(ord) ? n++ : -1;
+
+            int capacidad = Math.max(CAPACIDAD_INICIAL, n + n / 2);
+            long[] ids2 = new long[capacidad];
+            int[] longitudes2 = new int[capacidad];
+            StatusTopico[] status2 = new StatusTopico[capacidad];
+            String[] cursos2 = new String[capacidad];
+            String[] autores2 = new String[capacidad];
+            Map<String, String> valores2 = new HashMap<>();
+            for (int ord = 0; ord < siguiente; ord++) {
+                int nuevo = nuevos[ord];
+                if (nuevo < 0) continue;
+                ids2[nuevo] = ids[ord];
+                longitudes2[nuevo] = longitudes[ord];
+                status2[nuevo] = status[ord];
+                cursos2[nuevo] = cursos[ord] == null ? null : valores2.computeIfAbsent(cursos[ord], k -> k);
+                autores2[nuevo] = autores[ord] == null ? null : valores2.computeIfAbsent(autores[ord], k -> k);
+            }
+            terminos.values().removeIf(p -> !p.compactar(nuevos));
+            ordinales.replaceAll((id, ord) -> nuevos[ord]);
+
+            ids = ids2;
+            longitudes = longitudes2;
+            status = status2;
+            cursos = cursos2;
+            autores = autores2;
+            valores = valores2;
+            vivos = new BitSet(capacidad);
+            vivos.set(0, n);
+            siguiente = n;
+            muertos = 0;
+        }
+
+        /**
+         * Puntúa documento a documento recorriendo en paralelo las posting lists (ordenadas por ordinal: los nuevos
+         * siempre son mayores y la compactación conserva el orden): no hay acumulador por documento, solo el top-k.
+         */
+        Page<Resultado> buscar(List<String> consulta, TopicoFiltro filtro, Pageable pageable) {
+            double promedio = documentos == 0 ? 1 : (double) longitudTotal / documentos;
+            List<Postings> listas = new ArrayList<>(consulta.size());
+            double[] idfs = new double[consulta.size()];
+            for (String termino : consulta) {
+                Postings p = terminos.get(termino);
+                if (p == null) continue;
+                int df = 0;
+                for (int i = 0; i < p.size; i++) if (vivos.get(p.docs[i])) df++;
+                if (df == 0) continue;
+                idfs[listas.size()] = Math.log(1 + (documentos - df + 0.5) / (df + 0.5));
+                listas.add(p);
+            }
+
+            // Top-k acotado: solo se conservan las filas hasta el final de la página pedida
+            long fin = pageable.getOffset() + pageable.getPageSize();
+            Comparator<Resultado> orden = Comparator.comparingDouble(Resultado::puntaje).thenComparingLong(Resultado::id);
+            PriorityQueue<Resultado> top = new PriorityQueue<>(orden);
+            int[] pos = new int[listas.size()];
+            long total = 0;
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int t = 0; t < pos.length; t++) {
+                    Postings p = listas.get(t);
+                    if (pos[t] < p.size) doc = Math.min(doc, p.docs[pos[t]]);
+                }
+                if (doc == Integer.MAX_VALUE) break;
+
+                boolean candidato = vivos.get(doc) && cumple(doc, filtro);
+                double puntaje = 0;
+                for (int t = 0; t < pos.length; t++) {
+                    Postings p = listas.get(t);
+                    if (pos[t] < p.size && p.docs[pos[t]] == doc) {
+                        if (candidato) {
+                            double tf = p.frecuencias[pos[t]];
+                            double norma = K1 * (1 - B + B * longitudes[doc] / promedio);
+                            puntaje += idfs[t] * tf * (K1 + 1) / (tf + norma);
+                        }
+                        pos[t]++;
+                    }
+                }
+                if (!candidato) continue;
+
+                total++;
+                if (top.size() < fin) {
+                    top.add(new Resultado(ids[doc], puntaje));
+                } else if (fin > 0) {
+                    Resultado peor = top.peek();
+                    if (puntaje > peor.puntaje() || (puntaje == peor.puntaje() && ids[doc] > peor.id())) {
+                        top.poll();
+                        top.add(new Resultado(ids[doc], puntaje));
+                    }
+                }
+            }
+
+            List<Resultado> ordenados = new ArrayList<>(top);
+            ordenados.sort(orden.reversed());
+            int desde = (int) Math.min(pageable.getOffset(), ordenados.size());
+            return new PageImpl<>(ordenados.subList(desde, ordenados.size()), pageable, total);
+        }
+
+        boolean cumple(int doc, TopicoFiltro f) {
+            return (f.status() == null || f.status() == status[doc])
+                    && (f.curso() == null || f.curso().equals(cursos[doc]))
+                    && (f.autor() == null || f.autor().equals(autores[doc]));
+        }
+
+        Estadisticas estadisticas() {
+            long postings = 0;
+            for (Postings p : terminos.values()) postings += p.size;
+            return new Estadisticas(documentos, terminos.size(), postings, siguiente);
+        }
+
+        private void crecer() {
+            int n = ids.length * 2;
+            ids = Arrays.copyOf(ids, n);
+            longitudes = Arrays.copyOf(longitudes, n);
+            status = Arrays.copyOf(status, n);
+            cursos = Arrays.copyOf(cursos, n);
+            autores = Arrays.copyOf(autores, n);
+        }
+    }
+}
@@ -1,8 +1,149 @@
 package com.foro.forohub.domain.topico;
 
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import com.foro.forohub.api.dto.TopicoResumenDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface TopicoRepository extends JpaRepository<Topico, Long> {
-    boolean existsByTituloAndMensaje(String titulo, String mensaje);
-    boolean existsByTituloAndMensajeAndIdNot(String titulo, String mensaje, Long id);
-}
\ No newline at end of file
+    // ===== Escrituras de una sola sentencia; los duplicados los rechaza uk_topicos_hash_contenido =====
+
+    /**
+     * Actualización parcial (null = conservar); recalcula el hash igual que {@link Topico#hashDe} e incrementa la versión.
+     * Con {@code version} no nula solo actualiza si coincide (If-Match): 0 filas = no existe o versión distinta.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE topicos SET
+                titulo = COALESCE(:titulo, titulo),
+                mensaje = COALESCE(:mensaje, mensaje),
+                autor = COALESCE(:autor, autor),
+                curso = COALESCE(:curso, curso),
+                hash_contenido = SHA2(CONCAT(COALESCE(:titulo, titulo), CHAR(10), COALESCE(:mensaje, mensaje)), 256),
+                version = version + 1,
+                fecha_actualizacion = :ahora
+            WHERE id = :id AND (:version IS NULL OR version = :version)
+            """, nativeQuery = true)
+    int updateParcial(Long id, String titulo, String mensaje, String autor, String curso,
+                      Long version, LocalDateTime ahora);
+
+    @Modifying
+    @Query("delete from Topico t where t.id = :id")
+    int deleteOneById(Long id);
+
+    // ===== Contadores de respuestas: se actualizan en la transacción del alta/baja de la respuesta =====
+
+    /**
+     * Suma una respuesta; el UPDATE bloquea la fila del tópico antes del INSERT de la respuesta, así las altas
+     * concurrentes se serializan sin deadlock. Cambia la versión (el ETag incluye los contadores). 0 = no existe.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE topicos SET
+                cantidad_respuestas = cantidad_respuestas + 1,
+                fecha_ultima_respuesta = :fecha,
+                version = version + 1,
+                fecha_actualizacion = :fecha
+            WHERE id = :id
+            """, nativeQuery = true)
+    int sumarRespuesta(Long id, LocalDateTime fecha);
+
+    /** Resta una respuesta ya borrada y recalcula la última por el índice (topico_id, fecha_creacion, id). */
+    @Modifying
+    @Query(value = """
+            UPDATE topicos SET
+                cantidad_respuestas = cantidad_respuestas - 1,
+                fecha_ultima_respuesta = (SELECT MAX(r.fecha_creacion) FROM respuestas r WHERE r.topico_id = :id),
+                version = version + 1,
+                fecha_actualizacion = :ahora
+            WHERE id = :id
+            """, nativeQuery = true)
+    int restarRespuesta(Long id, LocalDateTime ahora);
+
+    /** Bloquea la fila del tópico (mismo orden de locks que el alta: primero el tópico, luego la respuesta). */
+    @Query(value = "SELECT id FROM topicos WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> bloquear(Long id);
+
+    // ===== Proyecciones de lectura: solo las columnas necesarias, sin entidades gestionadas =====
+    String DTO = "new com.foro.forohub.api.dto.TopicoResponseDTO("
+            + "t.id, t.titulo, t.mensaje, t.fechaCreacion, t.status, t.autor, t.curso, t.fechaActualizacion, t.version, "
+            + "t.cantidadRespuestas, t.fechaUltimaRespuesta)";
+    String RESUMEN = "new com.foro.forohub.api.dto.TopicoResumenDTO("
+            + "t.id, t.titulo, substring(t.mensaje, 1, 200), t.fechaCreacion, t.status, t.autor, t.curso, "
+            + "t.cantidadRespuestas, t.fechaUltimaRespuesta, t.vistas)";
+
+    // Cada filtro nulo se pliega a TRUE en el optimizador, así MySQL usa el índice (filtro, fecha_creacion, id)
+    String FILTRO = " where (:status is null or t.status = :status)"
+            + " and (:curso is null or t.curso = :curso)"
+            + " and (:autor is null or t.autor = :autor)";
+
+    @Query(value = "select " + DTO + " from Topico t" + FILTRO,
+            countQuery = "select count(t) from Topico t" + FILTRO)
+    Page<TopicoResponseDTO> findAllDto(StatusTopico status, String curso, String autor, Pageable pageable);
+
+    @Query(value = "select " + RESUMEN + " from Topico t" + FILTRO,
+            countQuery = "select count(t) from Topico t" + FILTRO)
+    Page<TopicoResumenDTO> findResumenes(StatusTopico status, String curso, String autor, Pageable pageable);
+
+    @Query("select " + DTO + " from Topico t where t.id = :id")
+    Optional<TopicoResponseDTO> findDtoById(Long id);
+
+    // Recorre idx_topicos_vistas de atrás hacia adelante: sin ordenar la tabla. Conteos persistidos (hasta un volcado de atraso)
+    @Query("select " + RESUMEN + " from Topico t order by t.vistas desc, t.id desc")
+    List<TopicoResumenDTO> findMasVistos(Limit limit);
+
+    @Query("select " + RESUMEN + " from Topico t where t.id in :ids")
+    List<TopicoResumenDTO> findResumenesByIdIn(Collection<Long> ids);
+
+    @Query("select " + DTO + " from Topico t where t.hashContenido in :hashes")
+    List<TopicoResponseDTO> findDtoByHashContenidoIn(Collection<String> hashes);
+
+    // ===== Versiones para peticiones condicionales (ETag / Last-Modified): sin mensaje ni serialización =====
+    String VERSION = "new com.foro.forohub.domain.topico.TopicoVersion(t.id, t.version, t.fechaActualizacion)";
+
+    @Query("select " + VERSION + " from Topico t where t.id = :id")
+    Optional<TopicoVersion> findVersionById(Long id);
+
+    @Query(value = "select " + VERSION + " from Topico t" + FILTRO,
+            countQuery = "select count(t) from Topico t" + FILTRO)
+    Page<TopicoVersion> findVersiones(StatusTopico status, String curso, String autor, Pageable pageable);
+
+    // ===== Paginación por cursor (keyset): sin OFFSET ni COUNT, usa los índices (..., fecha_creacion, id) =====
+    @Query("select " + DTO + " from Topico t" + FILTRO + " order by t.fechaCreacion desc, t.id desc")
+    List<TopicoResponseDTO> findPrimeros(StatusTopico status, String curso, String autor, Limit limit);
+
+    @Query("select " + DTO + " from Topico t" + FILTRO
+            + " and (t.fechaCreacion < :fecha or (t.fechaCreacion = :fecha and t.id < :id))"
+            + " order by t.fechaCreacion desc, t.id desc")
+    List<TopicoResponseDTO> findSiguientes(StatusTopico status, String curso, String autor,
+                                           LocalDateTime fecha, Long id, Limit limit);
+
+    default Page<TopicoResponseDTO> findAllDto(TopicoFiltro f, Pageable pageable) {
+        return findAllDto(f.status(), f.curso(), f.autor(), pageable);
+    }
+
+    default Page<TopicoVersion> findVersiones(TopicoFiltro f, Pageable pageable) {
+        return findVersiones(f.status(), f.curso(), f.autor(), pageable);
+    }
+
+    default Page<TopicoResumenDTO> findResumenes(TopicoFiltro f, Pageable pageable) {
+        return findResumenes(f.status(), f.curso(), f.autor(), pageable);
+    }
+
+    default List<TopicoResponseDTO> findPrimeros(TopicoFiltro f, Limit limit) {
+        return findPrimeros(f.status(), f.curso(), f.autor(), limit);
+    }
+
+    default List<TopicoResponseDTO> findSiguientes(TopicoFiltro f, TopicoCursor c, Limit limit) {
+        return findSiguientes(f.status(), f.curso(), f.autor(), c.fechaCreacion(), c.id(), limit);
+    }
+}
@@ -0,0 +1,70 @@
+package com.foro.forohub.domain.topico;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+/**
+ * Versión de un tópico (proyección liviana, sin mensaje) y el cálculo de sus ETag.
+ * Para responder 304 basta con esta consulta: no se carga ni serializa el cuerpo.
+ */
+public record TopicoVersion(Long id, Long version, LocalDateTime fechaActualizacion) {
+
+    /** ETag fuerte del detalle en un formato: la versión entre comillas. */
+    public String etag(MediaType formato) {
+        return etag(version, formato);
+    }
+
+    /**
+     * Fuerte porque If-Match exige comparación fuerte; por eso depende de los bytes: JSON (o formato
+     * desconocido) lleva solo la versión, {@code "7"}, y los binarios el subtipo detrás, {@code "7-cbor"}.
+     */
+    public static String etag(Long version, MediaType formato) {
+        return formato == null || MediaType.APPLICATION_JSON.isCompatibleWith(formato)
+                ? "\"" + version + "\""
+                : "\"" + version + "-" + formato.getSubtype() + "\"";
+    }
+
+    public long ultimaModificacion() {
+        return fechaActualizacion.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * ETag débil de una página: cambia si cambia el total o el id/versión de cualquiera de sus filas.
+     * Débil porque no depende de los bytes (es el mismo en JSON, CBOR o Smile); además Tomcat no comprime
+     * respuestas con ETag fuerte.
+     */
+    public static String etag(Page<TopicoVersion> pagina) {
+        StringBuilder sb = new StringBuilder().append(pagina.getTotalElements());
+        for (TopicoVersion v : pagina) sb.append(';').append(v.id()).append(':').append(v.version());
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.US_ASCII));
+            return "W/\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+
+    /**
+     * Versión pedida en un If-Match; null si no hay condición o es "*". Vale el ETag de cualquier formato:
+     * todos identifican la misma versión del tópico.
+     * @throws IllegalArgumentException si el valor no es un ETag fuerte de detalle (nunca coincidiría)
+     */
+    public static Long deIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new IllegalArgumentException("If-Match inválido: " + ifMatch);
+        }
+        String valor = tag.substring(1, tag.length() - 1);
+        int sufijo = valor.indexOf('-');
+        // NumberFormatException es IllegalArgumentException
+        return Long.valueOf(sufijo < 0 ? valor : valor.substring(0, sufijo));
+    }
+}
@@ -0,0 +1,111 @@
+package com.foro.forohub.domain.topico;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vistas del detalle de tópicos: cada GET suma en un {@link LongAdder} por id (sin locks ni escrituras en la BD)
+ * y una tarea programada vuelca los incrementos a topicos.vistas con un UPDATE por lote de ids.
+ * Una caída pierde como mucho las vistas de un intervalo de volcado. Con varias instancias cada una suma
+ * sus propios deltas, así que no se pisan.
+ */
+@Slf4j
+@Component
+public class TopicoVistas {
+
+    /** Contador de un tópico y lo que ya se escribió de él; {@code volcado} solo lo toca la tarea de volcado. */
+    private static final class Contador {
+        final LongAdder vistas = new LongAdder();
+        long volcado;
+        int ciclosInactivo;
+    }
+
+    private final JdbcTemplate jdbc;
+    private final int tamanoLote;
+    private final Map<Long, Contador> contadores = new ConcurrentHashMap<>();
+
+    public TopicoVistas(JdbcTemplate jdbc, @Value("${forohub.vistas.tamano-lote:500}") int tamanoLote) {
+        this.jdbc = jdbc;
+        this.tamanoLote = tamanoLote;
+    }
+
+    public void registrar(Long id) {
+        contadores.computeIfAbsent(id, k -> new Contador()).vistas.increment();
+    }
+
+    /**
+     * Escribe los deltas acumulados. Los ids van ordenados (mismo orden de locks en todas las instancias)
+     * y en lotes de un solo UPDATE con CASE. Si un lote falla, su delta sigue pendiente para el próximo intento.
+     */
+    @Scheduled(fixedDelayString = "${forohub.vistas.intervalo:PT5S}", initialDelayString = "${forohub.vistas.intervalo:PT5S}")
+    public synchronized void volcar() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        List<Contador> lote = new ArrayList<>();
+        List<Long> totales = new ArrayList<>();
+        for (Long id : contadores.keySet().stream().sorted().toList()) {
+            Contador c = contadores.get(id);
+            if (c == null) continue;
+            long total = c.vistas.sum();
+            if (total == c.volcado) {
+                // Inactivo dos intervalos seguidos: se libera. Una vista que llegue justo al desalojar se pierde
+                if (++c.ciclosInactivo >= 2) contadores.remove(id, c);
+                continue;
+            }
+            c.ciclosInactivo = 0;
+            ids.add(id);
+            deltas.add(total - c.volcado);
+            lote.add(c);
+            totales.add(total);
+        }
+
+        for (int desde = 0; desde < ids.size(); desde += tamanoLote) {
+            int hasta = Math.min(desde + tamanoLote, ids.size());
+            try {
+                escribir(ids.subList(desde, hasta), deltas.subList(desde, hasta));
+            } catch (DataAccessException ex) {
+                log.warn("No se pudieron volcar {} contadores de vistas; se reintenta en el próximo ciclo: {}",
+                        hasta - desde, ex.getMessage());
+                continue;
+            }
+            for (int i = desde; i < hasta; i++) lote.get(i).volcado = totales.get(i);
+        }
+    }
+
+    /** Al apagar ordenadamente no se pierde nada. */
+    @PreDestroy
+    void alApagar() {
+        volcar();
+    }
+
+    // ================= Helpers =================
+
+    /** UPDATE topicos SET vistas = vistas + CASE id WHEN ? THEN ? ... END WHERE id IN (...) */
+    private void escribir(List<Long> ids, List<Long> deltas) {
+        StringBuilder sql = new StringBuilder("UPDATE topicos SET vistas = vistas + CASE id");
+        Object[] args = new Object[ids.size() * 3];
+        int a = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(" WHEN ? THEN ?");
+            args[a++] = ids.get(i);
+            args[a++] = deltas.get(i);
+        }
+        sql.append(" ELSE 0 END WHERE id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args[a++] = ids.get(i);
+        }
+        jdbc.update(sql.append(')').toString(), args);
+    }
+}
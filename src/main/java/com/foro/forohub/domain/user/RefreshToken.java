@@ -0,0 +1,47 @@
+package com.foro.forohub.domain.user;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh token opaco de un solo uso. Solo se persiste el SHA-256 del token; las rotaciones
+ * de un mismo login comparten {@code familia}, que se revoca entera si se reutiliza un token ya usado.
+ */
+@Entity
+@Table(name = "refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_tokens_hash", columnNames = {"token_hash"}),
+        indexes = {
+                @Index(name = "idx_refresh_tokens_familia", columnList = "familia"),
+                @Index(name = "idx_refresh_tokens_expira", columnList = "expira")
+        })
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", length = 64, nullable = false)
+    private String tokenHash;
+
+    @Column(length = 36, nullable = false)
+    private String familia;
+
+    @Column(nullable = false)
+    private String usuario;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(nullable = false)
+    private LocalDateTime expira;
+
+    private LocalDateTime fechaUso;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean revocado = false;
+}
@@ -0,0 +1,27 @@
+package com.foro.forohub.domain.user;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /** Consume el token en un único UPDATE condicional: de dos rotaciones concurrentes solo una obtiene 1. */
+    @Modifying
+    @Query("update RefreshToken r set r.fechaUso = :ahora where r.tokenHash = :hash"
+            + " and r.fechaUso is null and r.revocado = false and r.expira > :ahora")
+    int marcarUsado(String hash, LocalDateTime ahora);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revocado = true where r.familia = :familia")
+    int revocarFamilia(String familia);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expira < :limite")
+    int deleteExpirados(LocalDateTime limite);
+}
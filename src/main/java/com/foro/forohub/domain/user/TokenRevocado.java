@@ -0,0 +1,29 @@
+package com.foro.forohub.domain.user;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Access token revocado antes de su exp (por jti); la fila sobra en cuanto el token vence. */
+@Entity
+@Table(name = "tokens_revocados",
+        indexes = {
+                @Index(name = "idx_tokens_revocados_fecha", columnList = "fecha_revocacion"),
+                @Index(name = "idx_tokens_revocados_expira", columnList = "expira")
+        })
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class TokenRevocado {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expira;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaRevocacion;
+}
@@ -0,0 +1,19 @@
+package com.foro.forohub.domain.user;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+
+    /** Revocaciones recientes (de esta u otras instancias) que aún no vencieron. */
+    @Query("select t from TokenRevocado t where t.fechaRevocacion >= :desde and t.expira > :ahora")
+    List<TokenRevocado> findVigentesDesde(LocalDateTime desde, LocalDateTime ahora);
+
+    @Modifying
+    @Query("delete from TokenRevocado t where t.expira < :limite")
+    int deleteExpirados(LocalDateTime limite);
+}
@@ -1,5 +1,6 @@
 package com.foro.forohub.domain.user;
 
+import com.foro.forohub.security.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -0,0 +1,10 @@
+package com.foro.forohub.api.dto;
+
+import java.util.List;
+
+/** Página de la paginación por cursor: sin totales; {@code nextCursor} es null en la última página. */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+) {}
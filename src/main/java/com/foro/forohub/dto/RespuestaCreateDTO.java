@@ -0,0 +1,9 @@
+package com.foro.forohub.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record RespuestaCreateDTO(
+        @NotBlank String mensaje,
+        @NotBlank @Size(max = 100) String autor
+) {}
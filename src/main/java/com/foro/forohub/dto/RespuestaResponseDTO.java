@@ -0,0 +1,11 @@
+package com.foro.forohub.api.dto;
+
+import java.time.LocalDateTime;
+
+public record RespuestaResponseDTO(
+        Long id,
+        Long topicoId,
+        String mensaje,
+        String autor,
+        LocalDateTime fechaCreacion
+) {}
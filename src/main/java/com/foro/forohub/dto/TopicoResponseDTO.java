@@ -10,5 +10,9 @@ public record TopicoResponseDTO(
         LocalDateTime fechaCreacion,
         StatusTopico status,
         String autor,
-        String curso
-) {}
\ No newline at end of file
+        String curso,
+        LocalDateTime fechaActualizacion,
+        Long version,
+        Integer cantidadRespuestas,
+        LocalDateTime fechaUltimaRespuesta
+) {}
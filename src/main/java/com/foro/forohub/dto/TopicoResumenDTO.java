@@ -0,0 +1,18 @@
+package com.foro.forohub.api.dto;
+
+import com.foro.forohub.domain.topico.StatusTopico;
+import java.time.LocalDateTime;
+
+/** Vista de listado: el mensaje llega truncado a un preview desde la propia consulta. */
+public record TopicoResumenDTO(
+        Long id,
+        String titulo,
+        String preview,
+        LocalDateTime fechaCreacion,
+        StatusTopico status,
+        String autor,
+        String curso,
+        Integer cantidadRespuestas,
+        LocalDateTime fechaUltimaRespuesta,
+        Long vistas
+) {}
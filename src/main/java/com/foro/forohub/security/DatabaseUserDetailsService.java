@@ -1,21 +1,40 @@
 package com.foro.forohub.security;
 
 import com.foro.forohub.domain.user.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class DatabaseUserDetailsService implements UserDetailsService {
+public class DatabaseUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository users;
 
     @Override
+    @Timed(value = "forohub.usuarios.carga", histogram = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // usamos email como username
         return users.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
-}
\ No newline at end of file
+
+    /**
+     * Lo llama DaoAuthenticationProvider tras un login correcto cuando el hash guardado usa un
+     * algoritmo o costo anterior al configurado: guarda el hash nuevo (la contraseña no cambia).
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        return users.findByEmail(user.getUsername())
+                .map(u -> {
+                    u.setPassword(newPassword);
+                    return (UserDetails) u;
+                })
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + user.getUsername()));
+    }
+}
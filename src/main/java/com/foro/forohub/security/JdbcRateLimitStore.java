@@ -0,0 +1,78 @@
+package com.foro.forohub.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Baldes compartidos entre instancias en la tabla limites_peticiones (migración V9). Mismo GCRA que
+ * {@link LocalRateLimitStore}, con el CAS hecho en SQL: {@code UPDATE ... WHERE tat = <leído>}; si otra
+ * instancia ganó la carrera se relee y reintenta. El reloj es el de época, así que las instancias deben
+ * tener la hora sincronizada. Cuesta una o dos consultas por petición limitada: solo para varios nodos.
+ * Si la base falla se deja pasar la petición (fail-open) en lugar de cortar el servicio.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "forohub.rate-limit.store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Decision tryConsume(String key, RateLimit limit) {
+        try {
+            for (int i = 0; i < MAX_ATTEMPTS; i++) {
+                long now = epochNanos();
+                List<Long> actual = jdbc.queryForList("SELECT tat FROM limites_peticiones WHERE clave = ?", Long.class, key);
+                long tat = actual.isEmpty() ? now : actual.get(0);
+                long next = RateLimitStore.nextTat(tat, now, limit);
+                if (next == Long.MIN_VALUE || write(key, actual.isEmpty() ? null : tat, next)) {
+                    return RateLimitStore.decision(tat, next, now, limit);
+                }
+            }
+            log.debug("Rate limit: demasiada contención en {}, se deja pasar", key);
+        } catch (DataAccessException ex) {
+            log.warn("Rate limit: store JDBC no disponible, se deja pasar: {}", ex.getMessage());
+        }
+        return Decision.UNLIMITED;
+    }
+
+    /** Borra los baldes llenos; los que vuelvan a usarse se recrean con la ráfaga completa. */
+    @Scheduled(fixedDelayString = "${forohub.rate-limit.purge-interval:PT1M}", initialDelayString = "${forohub.rate-limit.purge-interval:PT1M}")
+    public void purge() {
+        int n = jdbc.update("DELETE FROM limites_peticiones WHERE tat <= ?", epochNanos());
+        if (n > 0) log.debug("Rate limit: {} baldes llenos eliminados", n);
+    }
+
+    // ================= Helpers =================
+
+    /** CAS: inserta si no existía o actualiza solo si nadie cambió el TAT desde la lectura. */
+    private boolean write(String key, Long expected, long next) {
+        if (expected == null) {
+            try {
+                return jdbc.update("INSERT INTO limites_peticiones (clave, tat) VALUES (?, ?)", key, next) == 1;
+            } catch (DuplicateKeyException ex) {
+                return false; // otra instancia lo creó primero
+            }
+        }
+        return jdbc.update("UPDATE limites_peticiones SET tat = ? WHERE clave = ? AND tat = ?", next, key, expected) == 1;
+    }
+
+    private static long epochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
@@ -5,7 +5,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,16 +15,25 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService uds;
+    private final JwtTokenCache tokenCache;
+    private final JwtDenyList denyList;
+    private final boolean principalFromClaims;
 
-    public JwtAuthFilter(JwtService jwtService, UserDetailsService uds) {
+    public JwtAuthFilter(JwtService jwtService, UserDetailsService uds, JwtTokenCache tokenCache, JwtDenyList denyList,
+                         @Value("${jwt.principal-source:database}") String principalSource) {
         this.jwtService = jwtService;
         this.uds = uds;
+        this.tokenCache = tokenCache;
+        this.denyList = denyList;
+        this.principalFromClaims = "claims".equalsIgnoreCase(principalSource);
     }
 
     @Override
@@ -32,17 +43,40 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (auth != null && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
             try {
-                String username = jwtService.extractUsername(token);
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails user = uds.loadUserByUsername(username);
-                    if (jwtService.isValid(token, user)) {
-                        var authToken = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    JwtTokenCache.Entry entry = tokenCache.get(token);
+                    if (entry == null) entry = resolve(token);
+                    // Revocado (logout): lookup en memoria, también para tokens que ya estaban en caché
+                    if (entry != null && !denyList.isRevoked(entry.token().id())) {
+                        var authToken = new UsernamePasswordAuthenticationToken(entry.principal(), null, entry.authorities());
                         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authToken);
+                        request.setAttribute(VerifiedToken.ATTRIBUTE, entry.token());
                     }
                 }
             } catch (Exception ignored) {}
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /** Camino lento: una sola verificación del token, carga del principal y alta en la caché. */
+    private JwtTokenCache.Entry resolve(String token) {
+        VerifiedToken verified = jwtService.verify(token); // lanza excepción si la firma o el exp no son válidos
+        String username = verified.subject();
+        if (username == null || verified.expiresAt() == null) return null;
+
+        long generation = tokenCache.generation();
+        UserDetails user = principalFromClaims ? fromClaims(username, verified) : uds.loadUserByUsername(username);
+        if (!username.equals(user.getUsername())) return null;
+
+        return tokenCache.put(token, user, verified, generation);
+    }
+
+    /** Arma el principal solo con los claims firmados, sin consultar la base de datos. */
+    private static UserDetails fromClaims(String username, VerifiedToken verified) {
+        Collection<?> roles = verified.claim(JwtService.ROLES_CLAIM, List.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of()
+                : roles.stream().map(r -> new SimpleGrantedAuthority(String.valueOf(r))).toList();
+        return User.withUsername(username).password("").authorities(authorities).build();
+    }
+}
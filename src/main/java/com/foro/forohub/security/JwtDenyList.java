@@ -0,0 +1,85 @@
+package com.foro.forohub.security;
+
+import com.foro.forohub.domain.user.TokenRevocado;
+import com.foro.forohub.domain.user.TokenRevocadoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revocados antes de su exp (logout), por jti. La consulta por petición es un lookup en
+ * memoria; la tabla tokens_revocados es la fuente de verdad y se relee periódicamente para ver las
+ * revocaciones de otras instancias. Con access tokens cortos el conjunto queda chico: cada jti sale
+ * del set y de la tabla en cuanto su token vence. Un set exacto en lugar de un filtro de Bloom
+ * evita falsos positivos, que obligarían a confirmar contra la base.
+ */
+@Component
+public class JwtDenyList {
+
+    /** Revocaciones confirmadas tarde o con relojes desfasados entre instancias siguen entrando en la relectura. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TokenRevocadoRepository repository;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync = BEGINNING;
+
+    public JwtDenyList(TokenRevocadoRepository repository) {
+        this.repository = repository;
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.containsKey(jti);
+    }
+
+    /** Revoca el token hasta su exp. Sin jti o ya vencido no hay nada que guardar. */
+    @Transactional
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) return;
+        revoked.put(jti, expiresAt);
+        repository.save(TokenRevocado.builder()
+                .jti(jti)
+                .expira(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .fechaRevocacion(LocalDateTime.now())
+                .build());
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @PostConstruct
+    void load() {
+        if (repository != null) merge(LocalDateTime.now());
+    }
+
+    /** Trae las revocaciones nuevas de la tabla y descarta (memoria y tabla) las de tokens ya vencidos. */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT10S}", initialDelayString = "${jwt.revocation.sync-interval:PT10S}")
+    @Transactional
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        merge(now);
+        Instant instant = Instant.now();
+        revoked.values().removeIf(exp -> !exp.isAfter(instant));
+        repository.deleteExpirados(now);
+    }
+
+    // ================= Helpers =================
+
+    private void merge(LocalDateTime now) {
+        List<TokenRevocado> recent = repository.findVigentesDesde(lastSync.minus(SYNC_OVERLAP), now);
+        for (TokenRevocado t : recent) {
+            revoked.put(t.getJti(), t.getExpira().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        lastSync = now;
+    }
+}
@@ -0,0 +1,98 @@
+package com.foro.forohub.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Una clave de firma de {@link JwtKeyRing}, ya parseada: se identifica por {@code kid} (header del JWT)
+ * y firma desde {@code activeFrom} hasta que la reemplaza la siguiente.
+ * En HMAC {@code signing} y {@code verification} son el mismo secreto; en RSA/EC son la privada y la pública.
+ */
+public record JwtKey(String kid, SignatureAlgorithm alg, Key signing, Key verification, Instant activeFrom) {
+
+    public boolean isAsymmetric() {
+        return !alg.isHmac();
+    }
+
+    /** JWK público (RFC 7517) para el JWKS, o null si la clave es simétrica. */
+    public Map<String, Object> toJwk() {
+        if (!isAsymmetric()) return null;
+        Map<String, Object> jwk = new LinkedHashMap<>(publicMembers(verification));
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", alg.getValue());
+        return jwk;
+    }
+
+    /** Thumbprint RFC 7638 (SHA-256, Base64url) de una clave pública: se usa como kid. */
+    public static String thumbprint(Key publicKey) {
+        // Miembros obligatorios en orden lexicográfico y sin espacios
+        StringBuilder json = new StringBuilder("{");
+        publicMembers(publicKey).forEach((k, v) -> json.append(json.length() > 1 ? "," : "")
+                .append('"').append(k).append("\":\"").append(v).append('"'));
+        json.append('}');
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.toString().getBytes(StandardCharsets.UTF_8));
+            return base64Url(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+
+    // ================= Helpers =================
+
+    private static Map<String, String> publicMembers(Key key) {
+        Map<String, String> m = new LinkedHashMap<>();
+        if (key instanceof RSAPublicKey rsa) {
+            m.put("e", base64Url(unsigned(rsa.getPublicExponent())));
+            m.put("kty", "RSA");
+            m.put("n", base64Url(unsigned(rsa.getModulus())));
+        } else if (key instanceof ECPublicKey ec) {
+            int bits = ec.getParams().getCurve().getField().getFieldSize();
+            int len = (bits + 7) / 8;
+            m.put("crv", switch (bits) {
+                case 256 -> "P-256";
+                case 384 -> "P-384";
+                case 521 -> "P-521";
+                default -> throw new IllegalArgumentException("Curva EC no soportada: " + bits + " bits");
+            });
+            m.put("kty", "EC");
+            m.put("x", base64Url(fixed(ec.getW().getAffineX(), len)));
+            m.put("y", base64Url(fixed(ec.getW().getAffineY(), len)));
+        } else {
+            throw new IllegalArgumentException("Tipo de clave pública no soportado: " + key.getAlgorithm());
+        }
+        return m;
+    }
+
+    /** Big-endian sin el byte de signo que agrega BigInteger. */
+    private static byte[] unsigned(BigInteger n) {
+        byte[] b = n.toByteArray();
+        return b.length > 1 && b[0] == 0 ? Arrays.copyOfRange(b, 1, b.length) : b;
+    }
+
+    /** Coordenada EC con el largo fijo de la curva (RFC 7518 §6.2.1.2). */
+    private static byte[] fixed(BigInteger n, int len) {
+        byte[] b = unsigned(n);
+        if (b.length == len) return b;
+        byte[] out = new byte[len];
+        System.arraycopy(b, 0, out, len - b.length, b.length);
+        return out;
+    }
+
+    private static String base64Url(byte[] b) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(b);
+    }
+}
@@ -0,0 +1,376 @@
+package com.foro.forohub.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.DecodingException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.*;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Claves de firma de los JWT, indexadas por {@code kid} y ya parseadas: verificar es una búsqueda en un mapa.
+ * <ul>
+ *   <li>HMAC (HS*): una sola clave derivada de {@code jwt.secret}, sin rotación (el secreto es compartido).</li>
+ *   <li>RSA/EC (RS*, PS*, ES*): pares generados aquí y rotados cada {@code jwt.keys.rotation}. La clave nueva
+ *       se publica en el JWKS {@code jwt.keys.prepublish} antes de empezar a firmar, y la retirada sigue
+ *       verificando durante {@code jwt.ttl} (hasta que vence el último token que firmó).</li>
+ * </ul>
+ * Con {@code jwt.keys.dir} los pares se guardan como PEM ({@code <kid>.pem}) y sobreviven reinicios;
+ * varias instancias que compartan el directorio terminan con el mismo conjunto de claves: generar una clave
+ * se hace con un lock de archivo y releyendo el directorio, así dos instancias que arrancan juntas no firman
+ * cada una con su propia clave.
+ * <p>
+ * Al pasar de HS256 a RSA/EC (o al actualizar desde la versión que emitía tokens sin kid), el secreto
+ * {@code jwt.secret} queda como clave HS256 solo de verificación hasta el instante {@code jwt.keys.legacy-hmac-until}:
+ * los tokens ya emitidos (sin kid, o con el kid {@code hs-...}) siguen valiendo hasta vencer en vez de cortar todas
+ * las sesiones. Es un instante absoluto y no una duración para que ni un reinicio ni tener {@code jwt.secret}
+ * configurado vuelvan a abrir la ventana; vacío, no hay ventana y un token sin kid se rechaza siempre.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    /** Claves ordenadas por activeFrom (la última activa es la que firma) y el índice por kid. */
+    private record Snapshot(List<JwtKey> keys, Map<String, JwtKey> byKid) {
+        Snapshot(List<JwtKey> keys) {
+            this(List.copyOf(keys), index(keys));
+        }
+
+        private static Map<String, JwtKey> index(List<JwtKey> keys) {
+            Map<String, JwtKey> m = new HashMap<>();
+            keys.forEach(k -> m.put(k.kid(), k));
+            return Map.copyOf(m);
+        }
+    }
+
+    private static final String ALG_HEADER = "# alg: ";
+    private static final String ACTIVE_FROM_HEADER = "# active-from: ";
+    private static final String LOCK_FILE = ".lock";
+    /** FileLock es por proceso: dentro de la JVM se serializa además con este lock. */
+    private static final ReentrantLock LOCAL_DIR_LOCK = new ReentrantLock();
+
+    private final SignatureAlgorithm alg;
+    private final Duration rotation;
+    private final Duration prepublish;
+    private final Duration retention;
+    private final Path dir;
+    private final JwtKey legacy;       // HS256 de jwt.secret, solo verificación; null si no aplica
+    private final Instant legacyUntil;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(
+            @Value("${jwt.secret}") String secretOrBase64,
+            @Value("${jwt.alg:HS256}") String algName,
+            @Value("${jwt.ttl:PT24H}") String ttl,
+            @Value("${jwt.keys.rotation:P7D}") String rotation,
+            @Value("${jwt.keys.prepublish:PT1H}") String prepublish,
+            @Value("${jwt.keys.dir:}") String dir,
+            @Value("${jwt.keys.legacy-hmac-until:}") String legacyHmacUntil
+    ) {
+        this.alg = SignatureAlgorithm.forName(algName);
+        this.rotation = Duration.parse(rotation);
+        this.prepublish = Duration.parse(prepublish);
+        this.retention = Duration.parse(ttl);
+        this.dir = dir == null || dir.isBlank() ? null : Path.of(dir);
+        if (this.prepublish.compareTo(this.rotation) >= 0) {
+            throw new IllegalArgumentException("jwt.keys.prepublish debe ser menor que jwt.keys.rotation");
+        }
+
+        if (legacyHmacUntil == null || legacyHmacUntil.isBlank()) {
+            this.legacy = null;
+            this.legacyUntil = Instant.MIN;
+        } else {
+            this.legacy = legacyKey(secretOrBase64);
+            this.legacyUntil = Instant.parse(legacyHmacUntil.trim());
+            if (Instant.now().isBefore(legacyUntil)) {
+                log.info("Tokens HS256 anteriores a las claves con kid se aceptan hasta {}", legacyUntil);
+            }
+        }
+
+        if (alg.isHmac()) {
+            SecretKey key = hmacKey(secretOrBase64);
+            String kid = "hs-" + hmacKid(key);
+            this.snapshot = new Snapshot(List.of(new JwtKey(kid, alg, key, key, Instant.EPOCH)));
+        } else {
+            this.snapshot = new Snapshot(List.of());
+            rotate();
+        }
+    }
+
+
+    /** Clave con la que se firman los tokens nuevos: la última cuya activación ya llegó. */
+    public JwtKey signingKey() {
+        return active(snapshot.keys(), Instant.now());
+    }
+
+    /**
+     * Clave para verificar un token con ese {@code kid} y {@code alg} de header.
+     * Todo token emitido por esta versión lleva kid; sin kid solo pueden ser HS256 anteriores, que se verifican
+     * con la clave HMAC anterior mientras su ventana siga abierta y se rechazan después.
+     * El alg del header debe coincidir con el de la clave: evita la confusión de algoritmos.
+     */
+    public Key verificationKey(String kid, String headerAlg) {
+        JwtKey key = kid == null ? null : snapshot.byKid().get(kid);
+        if (key == null && legacy != null && Instant.now().isBefore(legacyUntil)
+                && (kid == null || legacy.kid().equals(kid))) {
+            key = legacy;
+        }
+        if (key == null) {
+            throw new SignatureException(kid == null ? "Token sin kid fuera de la ventana HS256" : "Clave de firma desconocida: " + kid);
+        }
+        if (!key.alg().getValue().equals(headerAlg)) {
+            throw new SignatureException("El algoritmo " + headerAlg + " no corresponde a la clave " + kid);
+        }
+        return key.verification();
+    }
+
+    /** JWKS (RFC 7517) con las claves públicas vigentes, incluida la pre-publicada. Vacío con HMAC. */
+    public Map<String, Object> jwks() {
+        List<Map<String, Object>> keys = snapshot.keys().stream()
+                .map(JwtKey::toJwk)
+                .filter(Objects::nonNull)
+                .toList();
+        return Map.of("keys", keys);
+    }
+
+    /** Cuánto puede cachear un consumidor el JWKS sin perderse una clave nueva antes de que firme. */
+    public Duration jwksMaxAge() {
+        return prepublish.dividedBy(2);
+    }
+
+    /**
+     * Relee el directorio (claves de otras instancias), genera la próxima clave cuando falta menos de
+     * {@code prepublish} para la rotación y descarta las retiradas hace más de {@code jwt.ttl}.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.check-interval:PT1M}", initialDelayString = "${jwt.keys.check-interval:PT1M}")
+    public synchronized void rotate() {
+        if (alg.isHmac()) return;
+        Instant now = Instant.now();
+        List<JwtKey> keys = new ArrayList<>(snapshot.keys());
+        if (dir != null) load(keys);
+        keys.sort(Comparator.comparing(JwtKey::activeFrom));
+
+        if (needsKey(keys, now)) {
+            if (dir == null) {
+                keys.add(generate(nextActivation(keys, now)));
+            } else {
+                withDirLock(() -> {
+                    // Otra instancia pudo generarla desde la lectura anterior: solo se genera si sigue faltando
+                    load(keys);
+                    keys.sort(Comparator.comparing(JwtKey::activeFrom));
+                    if (needsKey(keys, now)) keys.add(generate(nextActivation(keys, now)));
+                });
+            }
+        }
+
+        // Una clave queda retirada cuando se activa la siguiente; sus tokens vencen a lo sumo jwt.ttl después
+        List<JwtKey> kept = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            JwtKey key = keys.get(i);
+            Instant retired = i + 1 < keys.size() ? keys.get(i + 1).activeFrom() : null;
+            if (retired != null && !retired.plus(retention).isAfter(now)) {
+                delete(key);
+                log.info("Clave JWT {} descartada (retirada desde {})", key.kid(), retired);
+            } else {
+                kept.add(key);
+            }
+        }
+        snapshot = new Snapshot(kept);
+    }
+
+    // ================= Helpers =================
+
+    /** Falta clave si no hay ninguna (primer arranque) o si la activa es la última y se acerca su rotación. */
+    private boolean needsKey(List<JwtKey> keys, Instant now) {
+        if (keys.isEmpty()) return true;
+        JwtKey current = active(keys, now);
+        return keys.get(keys.size() - 1) == current
+                && !now.isBefore(current.activeFrom().plus(rotation).minus(prepublish));
+    }
+
+    private Instant nextActivation(List<JwtKey> keys, Instant now) {
+        if (keys.isEmpty()) return now; // primer arranque: firma de inmediato
+        Instant scheduled = active(keys, now).activeFrom().plus(rotation);
+        Instant earliest = now.plus(prepublish); // si la app estuvo caída, igual se respeta la pre-publicación
+        return scheduled.isAfter(earliest) ? scheduled : earliest;
+    }
+
+    private void withDirLock(Runnable action) {
+        LOCAL_DIR_LOCK.lock();
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel ch = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = ch.lock()) {
+                action.run();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo bloquear " + dir, ex);
+        } finally {
+            LOCAL_DIR_LOCK.unlock();
+        }
+    }
+
+    /**
+     * El secreto HMAC como clave HS256 de solo verificación (así firmaba la versión anterior). Si se pidió la
+     * ventana, el secreto tiene que ser válido: falla al arrancar en vez de cortar las sesiones en silencio.
+     */
+    private static JwtKey legacyKey(String secretOrBase64) {
+        if (secretOrBase64 == null || secretOrBase64.isBlank()) {
+            throw new IllegalArgumentException("jwt.keys.legacy-hmac-until requiere el jwt.secret anterior");
+        }
+        SecretKey key = hmacKey(secretOrBase64);
+        return new JwtKey("hs-" + hmacKid(key), SignatureAlgorithm.HS256, key, key, Instant.EPOCH);
+    }
+
+    private static JwtKey active(List<JwtKey> keys, Instant now) {
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            if (!keys.get(i).activeFrom().isAfter(now)) return keys.get(i);
+        }
+        return keys.isEmpty() ? null : keys.get(0);
+    }
+
+    private JwtKey generate(Instant activeFrom) {
+        KeyPair pair = Keys.keyPairFor(alg);
+        JwtKey key = new JwtKey(JwtKey.thumbprint(pair.getPublic()), alg, pair.getPrivate(), pair.getPublic(), activeFrom);
+        if (dir != null) save(key);
+        log.info("Clave JWT {} ({}) generada, firma desde {}", key.kid(), alg.getValue(), activeFrom);
+        return key;
+    }
+
+    /** Agrega las claves del directorio que aún no están en memoria (las conocidas no se vuelven a parsear). */
+    private void load(List<JwtKey> keys) {
+        if (!Files.isDirectory(dir)) return;
+        Set<String> known = new HashSet<>();
+        keys.forEach(k -> known.add(k.kid()));
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : files.filter(p -> p.toString().endsWith(".pem")).toList()) {
+                String kid = f.getFileName().toString().replaceFirst("\\.pem$", "");
+                if (known.contains(kid)) continue;
+                try {
+                    JwtKey key = read(kid, f);
+                    if (key.alg() == alg) keys.add(key);
+                } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+                    log.warn("No se pudo leer la clave JWT {}: {}", f, ex.toString());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo listar " + dir, ex);
+        }
+    }
+
+    private static JwtKey read(String kid, Path file) throws IOException, GeneralSecurityException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII);
+        SignatureAlgorithm alg = SignatureAlgorithm.forName(header(pem, ALG_HEADER));
+        Instant activeFrom = Instant.parse(header(pem, ACTIVE_FROM_HEADER));
+        KeyFactory kf = KeyFactory.getInstance(alg.getFamilyName().equals("ECDSA") ? "EC" : "RSA");
+        PrivateKey priv = kf.generatePrivate(new PKCS8EncodedKeySpec(block(pem, "PRIVATE KEY")));
+        PublicKey pub = kf.generatePublic(new X509EncodedKeySpec(block(pem, "PUBLIC KEY")));
+        return new JwtKey(kid, alg, priv, pub, activeFrom);
+    }
+
+    private void save(JwtKey key) {
+        String pem = ALG_HEADER + key.alg().getValue() + "\n"
+                + ACTIVE_FROM_HEADER + key.activeFrom() + "\n"
+                + pem("PRIVATE KEY", key.signing().getEncoded())
+                + pem("PUBLIC KEY", key.verification().getEncoded());
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, key.kid(), ".tmp");
+            try {
+                Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ignored) {} // sistema de archivos sin permisos POSIX
+            Files.writeString(tmp, pem, StandardCharsets.US_ASCII);
+            Files.move(tmp, dir.resolve(key.kid() + ".pem"), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo guardar la clave JWT en " + dir, ex);
+        }
+    }
+
+    private void delete(JwtKey key) {
+        if (dir == null) return;
+        try {
+            Files.deleteIfExists(dir.resolve(key.kid() + ".pem"));
+        } catch (IOException ex) {
+            log.warn("No se pudo borrar la clave JWT {}: {}", key.kid(), ex.toString());
+        }
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static byte[] block(String pem, String type) {
+        int start = pem.indexOf("-----BEGIN " + type + "-----");
+        int end = pem.indexOf("-----END " + type + "-----");
+        if (start < 0 || end < start) throw new IllegalArgumentException("Falta el bloque " + type);
+        String body = pem.substring(start + type.length() + 16, end);
+        return Base64.getMimeDecoder().decode(body);
+    }
+
+    private static String header(String pem, String prefix) {
+        return pem.lines()
+                .filter(l -> l.startsWith(prefix))
+                .map(l -> l.substring(prefix.length()).trim())
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Falta el encabezado '" + prefix.trim() + "'"));
+    }
+
+    /** Prefijo del SHA-256 del secreto: identifica la clave sin revelarla. */
+    private static String hmacKid(SecretKey key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 8);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+
+    /**
+     * Acepta secreto en Base64 o en texto plano.
+     * Si es Base64 válido, lo decodifica. Si no, usa los bytes del texto.
+     * Debe tener al menos 32 bytes (256 bits) para HS256, de lo contrario se lanza IllegalArgumentException.
+     */
+    private static SecretKey hmacKey(String secretOrBase64) {
+        byte[] keyBytes;
+        try {
+            keyBytes = Decoders.BASE64.decode(secretOrBase64);
+            if (keyBytes.length == 0) {
+                // Cuando la cadena no es Base64, algunos decoders devuelven [].
+                keyBytes = secretOrBase64.getBytes(StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException | DecodingException ex) {
+            // No es Base64: usar como texto plano
+            keyBytes = secretOrBase64.getBytes(StandardCharsets.UTF_8);
+        }
+
+        if (keyBytes.length < 32) {
+            throw new IllegalArgumentException(
+                    "jwt.secret es demasiado corto. Se requieren al menos 32 bytes (256 bits). " +
+                    "Genera uno con: openssl rand -base64 32 y colócalo en application.properties"
+            );
+        }
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+}
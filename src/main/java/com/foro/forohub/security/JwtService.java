@@ -1,45 +1,61 @@
 package com.foro.forohub.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.micrometer.core.annotation.Timed;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.time.Duration;
-import java.util.Collections;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 @Service
 public class JwtService {
 
-    private final SecretKey key;
-    private final SignatureAlgorithm alg;
+    /** Claim con las authorities del usuario (permite armar el principal sin ir a la BD). */
+    public static final String ROLES_CLAIM = "roles";
+
+    private final JwtKeyRing keys;
     private final Duration defaultTtl;
+    private final JwtParser parser; // inmutable y thread-safe: se construye una sola vez
 
     public JwtService(
-            @Value("${jwt.secret}") String secretOrBase64,
-            @Value("${jwt.alg:HS256}") String algName,
+            JwtKeyRing keys,
             @Value("${jwt.ttl:PT24H}") String ttl // ISO-8601, ej: PT24H = 24 horas
     ) {
-        this.key = buildKey(secretOrBase64);
-        this.alg = SignatureAlgorithm.forName(algName);
+        this.keys = keys;
         this.defaultTtl = Duration.parse(ttl);
+        // La clave sale del kid del header: un lookup en memoria, sin parsear material de claves
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keys.verificationKey(header.getKeyId(), header.getAlgorithm());
+                    }
+                })
+                .build();
     }
 
     // ================= API usada por tus clases =================
 
     /** Genera un JWT para el usuario con el TTL por defecto. */
+    @Timed(value = "forohub.jwt", extraTags = {"operacion", "firmar"}, histogram = true)
     public String generateToken(UserDetails user) {
-        return buildToken(Collections.emptyMap(), user, defaultTtl);
+        List<String> roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        return buildToken(Map.of(ROLES_CLAIM, roles), user, defaultTtl);
     }
 
     /** Extrae el username (subject) del token. */
@@ -49,8 +65,23 @@ public class JwtService {
 
     /** Valida que el token pertenezca al usuario y no esté expirado. */
     public boolean isValid(String token, UserDetails user) {
-        String username = extractUsername(token);
-        return username.equals(user.getUsername()) && !isExpired(token);
+        VerifiedToken verified = verify(token);
+        return user.getUsername().equals(verified.subject()) && !verified.isExpired(Instant.now());
+    }
+
+    /**
+     * Parsea y verifica el token una sola vez (firma + exp) y devuelve sus datos.
+     * Lanza {@link io.jsonwebtoken.JwtException} si el token no es válido.
+     */
+    @Timed(value = "forohub.jwt", extraTags = {"operacion", "verificar"}, histogram = true)
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims
+        );
     }
 
     // ================= Utilidades =================
@@ -58,60 +89,30 @@ public class JwtService {
     public String buildToken(Map<String, Object> extraClaims, UserDetails user, Duration ttl) {
         Date now = new Date();
         Date exp = Date.from(now.toInstant().plus(ttl));
+        JwtKey key = keys.signingKey();
 
         // Compatible con JJWT 0.11.x (API con métodos setX)
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getUsername())
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(key, alg)
+                .signWith(key.signing(), key.alg())
                 .compact();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return resolver.apply(claims);
+        return resolver.apply(extractAllClaims(token));
     }
 
-    private boolean isExpired(String token) {
-        Date exp = extractClaim(token, Claims::getExpiration);
-        return exp.before(new Date());
+    /** Verifica firma y expiración una sola vez y devuelve todos los claims. */
+    public Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public SecretKey getKey() { return key; }
-    public SignatureAlgorithm getAlg() { return alg; }
-
-    // ================= Helpers =================
-
-    /**
-     * Acepta secreto en Base64 o en texto plano.
-     * Si es Base64 válido, lo decodifica. Si no, usa los bytes del texto.
-     * Debe tener al menos 32 bytes (256 bits) para HS256, de lo contrario se lanza IllegalArgumentException.
-     */
-    private static SecretKey buildKey(String secretOrBase64) {
-        byte[] keyBytes;
-        try {
-            keyBytes = Decoders.BASE64.decode(secretOrBase64);
-            if (keyBytes.length == 0) {
-                // Cuando la cadena no es Base64, algunos decoders devuelven [].
-                keyBytes = secretOrBase64.getBytes(StandardCharsets.UTF_8);
-            }
-        } catch (IllegalArgumentException ex) {
-            // No es Base64: usar como texto plano
-            keyBytes = secretOrBase64.getBytes(StandardCharsets.UTF_8);
-        }
-
-        if (keyBytes.length < 32) {
-            throw new IllegalArgumentException(
-                    "jwt.secret es demasiado corto. Se requieren al menos 32 bytes (256 bits). " +
-                    "Genera uno con: openssl rand -base64 32 y colócalo en application.properties"
-            );
-        }
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-}
\ No newline at end of file
+    /** Clave de verificación de la clave activa (la misma que la de firma con HMAC). */
+    public Key getKey() { return keys.signingKey().verification(); }
+    public SignatureAlgorithm getAlg() { return keys.signingKey().alg(); }
+}
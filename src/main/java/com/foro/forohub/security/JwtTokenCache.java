@@ -0,0 +1,158 @@
+package com.foro.forohub.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché acotada de tokens ya verificados: digest SHA-256 del token -> principal y authorities.
+ * Cada entrada caduca en el {@code exp} del propio token, así que nunca se acepta un token vencido.
+ * <p>
+ * Invalidación sin recorrer el mapa: cada entrada lleva la "generación" (un reloj lógico global) leída
+ * antes de cargar al usuario, e invalidar a un usuario (cambio de rol o contraseña) anota el siguiente
+ * valor del reloj; sus entradas con una generación menor dejan de valer. Una anotación sobra cuando
+ * ninguna entrada viva es anterior a ella: entonces se la reemplaza por un piso común a todos los
+ * usuarios ({@code floor}) y se borra, así que el mapa de invalidaciones no crece sin límite.
+ */
+@Component
+public class JwtTokenCache {
+
+    /** Principal resuelto para un token, válido hasta el exp del token. */
+    public record Entry(UserDetails principal,
+                        Collection<? extends GrantedAuthority> authorities,
+                        VerifiedToken token,
+                        long generation) {
+        public Instant expiresAt() {
+            return token.expiresAt();
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> invalidations = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+
+    public JwtTokenCache(
+            @Value("${jwt.cache.enabled:true}") boolean enabled,
+            @Value("${jwt.cache.max-size:10000}") int maxSize
+    ) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+    }
+
+    /** Devuelve la entrada vigente del token o null si no está, expiró o el usuario fue invalidado. */
+    public Entry get(String token) {
+        if (!enabled) return null;
+        String key = digest(token);
+        Entry e = entries.get(key);
+        if (e == null) return null;
+        if (!e.expiresAt().isAfter(Instant.now()) || !isCurrent(e)) {
+            entries.remove(key, e);
+            return null;
+        }
+        return e;
+    }
+
+    /**
+     * Guarda el principal resuelto. {@code generation} debe leerse con {@link #generation()}
+     * ANTES de cargar al usuario, para que una invalidación concurrente no quede tapada.
+     */
+    public Entry put(String token, UserDetails principal, VerifiedToken verified, long generation) {
+        Entry e = new Entry(principal, principal.getAuthorities(), verified, generation);
+        if (!enabled) return e;
+        if (entries.size() >= maxSize) purge();
+        entries.put(digest(token), e);
+        return e;
+    }
+
+    public long generation() {
+        return clock.get();
+    }
+
+    /** Descarta todas las entradas del usuario (p. ej. tras cambiar su rol o contraseña). */
+    public void invalidateUser(String username) {
+        invalidations.put(username, clock.incrementAndGet());
+        if (invalidations.size() > maxSize) {
+            pruneInvalidations(false);
+            if (invalidations.size() > maxSize) pruneInvalidations(true);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        pruneInvalidations(true);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Usuarios con una invalidación anotada que todavía puede afectar a alguna entrada. */
+    public int invalidations() {
+        return invalidations.size();
+    }
+
+    // ================= Helpers =================
+
+    /**
+     * Quita las entradas expiradas o invalidadas; si sigue lleno, descarta las que vencen antes,
+     * que son las que menos aciertos le quedan por dar.
+     */
+    private void purge() {
+        Instant now = Instant.now();
+        entries.values().removeIf(e -> !e.expiresAt().isAfter(now) || !isCurrent(e));
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparing((Map.Entry<String, Entry> e) -> e.getValue().expiresAt()))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+        pruneInvalidations(false);
+    }
+
+    /** Se lee la anotación antes que el piso: quien la borra ya subió el piso, así que no se pueden perder ambos. */
+    private boolean isCurrent(Entry e) {
+        long invalidated = invalidations.getOrDefault(e.principal().getUsername(), 0L);
+        return e.generation() >= Math.max(invalidated, floor.get());
+    }
+
+    /**
+     * Sube el piso hasta la generación de la entrada viva más antigua (o hasta el reloj, con {@code force},
+     * a costa de que las entradas anteriores se vuelvan a resolver) y borra las anotaciones que quedan debajo.
+     * Una entrada que llegue tarde con una generación menor queda inválida: nunca se acepta de más.
+     */
+    private void pruneInvalidations(boolean force) {
+        long oldest = clock.get();
+        if (!force) {
+            for (Entry e : entries.values()) oldest = Math.min(oldest, e.generation());
+        }
+        long f = floor.accumulateAndGet(oldest, Math::max);
+        invalidations.values().removeIf(g -> g <= f);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.foro.forohub.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Baldes en memoria de esta instancia: un {@link AtomicLong} por clave con el TAT en nanos,
+ * actualizado con CAS (sin locks). Un balde cuyo TAT ya pasó está lleno y es idéntico a uno nuevo,
+ * así que se puede desalojar sin perder información; el mapa queda acotado a {@code max-keys}.
+ * <p>
+ * Nunca se desaloja un balde con tokens consumidos: si se pudiera, inundar el mapa con claves nuevas
+ * reiniciaría el límite de cualquier otra (p. ej. el de /auth/login). Con el mapa lleno de baldes activos,
+ * las claves nuevas comparten un balde de desborde por límite, que se agota enseguida y responde 429.
+ */
+@Component
+@ConditionalOnProperty(name = "forohub.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<RateLimit, AtomicLong> overflow = new ConcurrentHashMap<>();
+    /** Antes de este instante ningún balde del mapa estará lleno: no vale la pena recorrerlo. */
+    private volatile long nextFull = System.nanoTime();
+
+    public LocalRateLimitStore(@Value("${forohub.rate-limit.max-keys:100000}") int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public Decision tryConsume(String key, RateLimit limit) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxKeys || evict(now)
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(now))
+                    : overflow.computeIfAbsent(limit, l -> new AtomicLong(now));
+        }
+        while (true) {
+            long tat = bucket.get();
+            long next = RateLimitStore.nextTat(tat, now, limit);
+            if (next == Long.MIN_VALUE || bucket.compareAndSet(tat, next)) {
+                return RateLimitStore.decision(tat, next, now, limit);
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /** Desaloja los baldes llenos (inactivos al menos una ráfaga). */
+    @Scheduled(fixedDelayString = "${forohub.rate-limit.purge-interval:PT1M}", initialDelayString = "${forohub.rate-limit.purge-interval:PT1M}")
+    public void purge() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(b -> b.get() - now <= 0);
+    }
+
+    // ================= Helpers =================
+
+    /**
+     * Con el mapa lleno desaloja solo los baldes llenos; false si sigue sin haber sitio. Anota cuándo se
+     * llenará el primero de los restantes (el TAT solo avanza) para no recorrer el mapa en cada clave nueva.
+     */
+    private boolean evict(long now) {
+        if (now - nextFull < 0) return false;
+        long first = Long.MAX_VALUE;
+        for (Iterator<AtomicLong> it = buckets.values().iterator(); it.hasNext(); ) {
+            long pending = it.next().get() - now;
+            if (pending <= 0) it.remove();
+            else first = Math.min(first, pending);
+        }
+        if (buckets.size() < maxKeys) return true;
+        nextFull = now + first;
+        return false;
+    }
+}
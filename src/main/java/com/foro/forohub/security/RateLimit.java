@@ -0,0 +1,39 @@
+package com.foro.forohub.security;
+
+import java.time.Duration;
+
+/**
+ * Límite de un grupo de rutas: {@code capacity} peticiones por {@code period}, con ráfagas de hasta
+ * {@code capacity}. Se configura como "N/periodo ISO-8601", p. ej. {@code 10/PT1M}; "0" o vacío = sin límite.
+ */
+public record RateLimit(long capacity, Duration period) {
+
+    public RateLimit {
+        if (capacity <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Límite inválido: " + capacity + "/" + period);
+        }
+    }
+
+    /** null si el valor desactiva el límite. */
+    public static RateLimit parse(String spec) {
+        if (spec == null || spec.isBlank() || spec.trim().equals("0")) return null;
+        String[] partes = spec.trim().split("/", 2);
+        if (partes.length != 2) throw new IllegalArgumentException("Formato de límite inválido (N/PT1M): " + spec);
+        return new RateLimit(Long.parseLong(partes[0].trim()), Duration.parse(partes[1].trim()));
+    }
+
+    /** Tiempo en que se repone un token. */
+    public long intervalNanos() {
+        return Math.max(1, period.toNanos() / capacity);
+    }
+
+    /** Cuánto puede adelantarse el balde respecto del reloj: la ráfaga completa. */
+    public long burstNanos() {
+        return intervalNanos() * capacity;
+    }
+
+    @Override
+    public String toString() {
+        return capacity + "/" + period;
+    }
+}
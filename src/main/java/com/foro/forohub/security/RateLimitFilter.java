@@ -0,0 +1,126 @@
+package com.foro.forohub.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Limita peticiones por grupo de rutas antes de llegar al controlador (va justo después de {@link JwtAuthFilter}).
+ * La clave es el usuario autenticado o, si no hay, la IP; el login se limita siempre por IP, porque ahí
+ * el usuario aún no está probado. Al agotar el balde responde 429 con Retry-After (segundos, redondeado arriba).
+ * La IP es {@code getRemoteAddr()}: detrás de un proxy hay que activar server.forward-headers-strategy.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /** Grupos con límite propio; las rutas que no caen en ninguno no se limitan. */
+    enum RouteGroup {
+        /** Login y refresh: cada intento cuesta un hash de contraseña o una escritura. */
+        AUTH,
+        /** Altas, ediciones, borrados e importaciones de tópicos. */
+        WRITE,
+        /** Lecturas de tópicos. */
+        READ;
+
+        static RouteGroup of(String method, String path) {
+            if (path.equals("/auth/login") || path.equals("/auth/refresh")) {
+                return "POST".equals(method) ? AUTH : null;
+            }
+            if (path.equals("/topicos") || path.startsWith("/topicos/")) {
+                return switch (method) {
+                    case "GET", "HEAD" -> READ;
+                    case "OPTIONS" -> null;
+                    default -> WRITE;
+                };
+            }
+            return null;
+        }
+    }
+
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final Map<RouteGroup, RateLimit> limits = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejected = new EnumMap<>(RouteGroup.class);
+
+    public RateLimitFilter(RateLimitStore store, MeterRegistry registry,
+                           @Value("${forohub.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${forohub.rate-limit.auth:10/PT1M}") String auth,
+                           @Value("${forohub.rate-limit.write:60/PT1M}") String write,
+                           @Value("${forohub.rate-limit.read:600/PT1M}") String read) {
+        this.store = store;
+        this.enabled = enabled;
+        put(RouteGroup.AUTH, RateLimit.parse(auth));
+        put(RouteGroup.WRITE, RateLimit.parse(write));
+        put(RouteGroup.READ, RateLimit.parse(read));
+        for (RouteGroup g : RouteGroup.values()) {
+            rejected.put(g, Counter.builder("forohub.rate-limit.rechazos")
+                    .tag("grupo", g.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || limits.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RouteGroup group = RouteGroup.of(request.getMethod(), path);
+        RateLimit limit = group == null ? null : limits.get(group);
+        if (limit == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitStore.Decision d = store.tryConsume(key(group, request), limit);
+        if (d.allowed()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.get(group).increment();
+        long seconds = Math.max(1, (d.retryAfter().toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"rate_limited\",\"message\":\"Demasiadas peticiones, reintente en "
+                + seconds + " s\"}");
+    }
+
+    // ================= Helpers =================
+
+    private void put(RouteGroup group, RateLimit limit) {
+        if (limit != null) limits.put(group, limit);
+    }
+
+    private static String key(RouteGroup group, HttpServletRequest request) {
+        String prefix = group.name().toLowerCase(Locale.ROOT);
+        if (group != RouteGroup.AUTH) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+                return prefix + ":u:" + auth.getName();
+            }
+        }
+        return prefix + ":ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,39 @@
+package com.foro.forohub.security;
+
+import java.time.Duration;
+
+/**
+ * Dónde viven los baldes de {@link RateLimitFilter}. La implementación local ({@link LocalRateLimitStore})
+ * basta con una sola instancia; con varias, {@link JdbcRateLimitStore} comparte los baldes en la base.
+ * <p>
+ * Ambas usan GCRA: el estado de un balde es un único instante, el "tiempo teórico de llegada" (TAT),
+ * en que el balde volvería a estar lleno. Consumir un token lo adelanta un intervalo; se rechaza si
+ * quedaría más de una ráfaga por delante del reloj. Equivale a un token bucket sin contador aparte.
+ */
+public interface RateLimitStore {
+
+    record Decision(boolean allowed, long remaining, Duration retryAfter) {
+
+        static final Decision UNLIMITED = new Decision(true, Long.MAX_VALUE, Duration.ZERO);
+    }
+
+    Decision tryConsume(String key, RateLimit limit);
+
+    /**
+     * Aplica GCRA sobre el TAT actual ({@code tat}, en la misma escala que {@code now}).
+     * Devuelve el nuevo TAT si se admite o {@code Long.MIN_VALUE} si se rechaza.
+     */
+    static long nextTat(long tat, long now, RateLimit limit) {
+        long next = Math.max(tat, now) + limit.intervalNanos();
+        return next - now <= limit.burstNanos() ? next : Long.MIN_VALUE;
+    }
+
+    /** Decisión a partir del TAT previo y, si se admitió, el nuevo. */
+    static Decision decision(long tat, long next, long now, RateLimit limit) {
+        if (next != Long.MIN_VALUE) {
+            return new Decision(true, (limit.burstNanos() - (next - now)) / limit.intervalNanos(), Duration.ZERO);
+        }
+        long wait = Math.max(tat, now) + limit.intervalNanos() - limit.burstNanos() - now;
+        return new Decision(false, 0, Duration.ofNanos(Math.max(wait, 0)));
+    }
+}
@@ -0,0 +1,109 @@
+package com.foro.forohub.security;
+
+import com.foro.forohub.domain.user.RefreshToken;
+import com.foro.forohub.domain.user.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos, rotativos y de un solo uso. Cada uso devuelve uno nuevo de la misma familia;
+ * presentar uno ya usado indica que se filtró, así que se revoca la familia completa (el dueño legítimo
+ * y el atacante quedan ambos sin sesión y deben volver a hacer login).
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    /** Usuario dueño del token consumido y el refresh token que lo reemplaza. */
+    public record Rotation(String username, String refreshToken) {}
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository repository;
+    private final Duration ttl;
+
+    public RefreshTokenService(RefreshTokenRepository repository,
+                               @Value("${jwt.refresh.ttl:P14D}") String ttl) {
+        this.repository = repository;
+        this.ttl = Duration.parse(ttl);
+    }
+
+    /** Refresh token de un login nuevo (familia nueva). */
+    @Transactional
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consume el token (un UPDATE condicional: solo una de dos rotaciones concurrentes gana) y emite el siguiente.
+     * Lanza {@link CredentialsExpiredException} si no existe, venció, fue revocado o ya se usó.
+     */
+    @Transactional(noRollbackFor = CredentialsExpiredException.class)
+    public Rotation rotate(String token) {
+        String hash = hash(token);
+        if (repository.marcarUsado(hash, LocalDateTime.now()) == 0) {
+            repository.findByTokenHash(hash)
+                    .filter(r -> r.getFechaUso() != null && !r.isRevocado())
+                    .ifPresent(r -> {
+                        repository.revocarFamilia(r.getFamilia());
+                        log.warn("Refresh token reutilizado: familia {} de {} revocada", r.getFamilia(), r.getUsuario());
+                    });
+            throw new CredentialsExpiredException("Refresh token inválido, vencido o ya usado");
+        }
+        RefreshToken used = repository.findByTokenHash(hash).orElseThrow();
+        return new Rotation(used.getUsuario(), issue(used.getUsuario(), used.getFamilia()));
+    }
+
+    /** Logout: invalida el token y todos los de su familia. */
+    @Transactional
+    public void revokeFamily(String token) {
+        repository.findByTokenHash(hash(token)).ifPresent(r -> repository.revocarFamilia(r.getFamilia()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval:PT1H}", initialDelayString = "${jwt.refresh.purge-interval:PT1H}")
+    @Transactional
+    public void purge() {
+        int n = repository.deleteExpirados(LocalDateTime.now());
+        if (n > 0) log.info("{} refresh tokens vencidos eliminados", n);
+    }
+
+    // ================= Helpers =================
+
+    private String issue(String username, String family) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familia(family)
+                .usuario(username)
+                .fechaCreacion(now)
+                .expira(now.plus(ttl))
+                .build());
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+}
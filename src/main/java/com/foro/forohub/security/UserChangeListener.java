@@ -0,0 +1,38 @@
+package com.foro.forohub.security;
+
+import com.foro.forohub.domain.user.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de {@link User}: al cambiar (rol, contraseña...) o borrarse un usuario,
+ * invalida sus tokens en {@link JwtTokenCache}. Hibernate lo obtiene como bean de Spring.
+ */
+@Component
+public class UserChangeListener {
+
+    private final JwtTokenCache tokenCache;
+
+    public UserChangeListener(JwtTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        String username = user.getUsername();
+        tokenCache.invalidateUser(username);
+        // Se repite tras el commit: una petición concurrente pudo cachear la versión anterior entre el flush y el commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenCache.invalidateUser(username);
+                }
+            });
+        }
+    }
+}
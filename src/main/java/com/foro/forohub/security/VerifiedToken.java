@@ -0,0 +1,39 @@
+package com.foro.forohub.security;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resultado inmutable de verificar un JWT una sola vez (firma + expiración).
+ * {@link JwtAuthFilter} lo deja como atributo de la request bajo {@link #ATTRIBUTE},
+ * así los controladores pueden leerlo con {@code @RequestAttribute} sin volver a parsear.
+ */
+public record VerifiedToken(
+        String subject,
+        Instant issuedAt,
+        Instant expiresAt,
+        Map<String, Object> claims
+) {
+    public static final String ATTRIBUTE = VerifiedToken.class.getName();
+
+    public VerifiedToken {
+        claims = claims == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(claims));
+    }
+
+    /** jti: identifica al token para poder revocarlo ({@link JwtDenyList}); null en tokens sin jti. */
+    public String id() {
+        return claim("jti", String.class);
+    }
+
+    /** Claim personalizado con el tipo pedido, o null si no existe o es de otro tipo. */
+    public <T> T claim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
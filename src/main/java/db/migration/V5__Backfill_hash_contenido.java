@@ -0,0 +1,50 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Completa hash_contenido de las filas existentes por rangos de id, confirmando cada lote
+ * por separado para no mantener bloqueada toda la tabla durante el backfill.
+ */
+public class V5__Backfill_hash_contenido extends BaseJavaMigration {
+
+    private static final int LOTE = 1000;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection con = context.getConnection();
+        long min, max;
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MIN(id), MAX(id) FROM topicos WHERE hash_contenido IS NULL")) {
+            rs.next();
+            min = rs.getLong(1);
+            max = rs.getLong(2);
+            if (rs.wasNull()) return; // nada que completar
+        }
+
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(true);
+        try (PreparedStatement ps = con.prepareStatement(
+                "UPDATE topicos SET hash_contenido = SHA2(CONCAT(titulo, CHAR(10), mensaje), 256) "
+                        + "WHERE id BETWEEN ? AND ? AND hash_contenido IS NULL")) {
+            for (long desde = min; desde <= max; desde += LOTE) {
+                ps.setLong(1, desde);
+                ps.setLong(2, desde + LOTE - 1);
+                ps.executeUpdate();
+            }
+        } finally {
+            con.setAutoCommit(autoCommit);
+        }
+    }
+}
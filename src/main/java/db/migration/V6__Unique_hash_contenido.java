@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Tras el backfill de V5: hash_contenido pasa a NOT NULL + UNIQUE y se quita el único anterior, que solo
+ * cubría un prefijo de 255 caracteres de mensaje. Ese único lo crea V1; en las bases creadas por Hibernate
+ * antes de Flyway (baseline en V1) no existe, así que solo se borra si está.
+ */
+public class V6__Unique_hash_contenido extends BaseJavaMigration {
+
+    private static final String UNICO_ANTERIOR = "uk_topico_titulo_mensaje";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection con = context.getConnection();
+        try (Statement st = con.createStatement()) {
+            st.execute("ALTER TABLE topicos MODIFY hash_contenido CHAR(64) NOT NULL");
+            st.execute("CREATE UNIQUE INDEX uk_topicos_hash_contenido ON topicos (hash_contenido)");
+            if (existeUnico(con)) st.execute("ALTER TABLE topicos DROP INDEX " + UNICO_ANTERIOR);
+        }
+    }
+
+    private static boolean existeUnico(Connection con) throws Exception {
+        try (PreparedStatement ps = con.prepareStatement("SELECT COUNT(*) FROM information_schema.table_constraints"
+                + " WHERE UPPER(table_schema) = UPPER(SCHEMA()) AND UPPER(table_name) = 'TOPICOS'"
+                + " AND UPPER(constraint_name) = UPPER(?)")) {
+            ps.setString(1, UNICO_ANTERIOR);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+-- Respuestas de un tópico. Se borran con el tópico (ON DELETE CASCADE) y se leen por
+-- (topico_id, fecha_creacion, id): la paginación por cursor no necesita OFFSET.
+CREATE TABLE respuestas (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  topico_id BIGINT NOT NULL,
+  mensaje TEXT NOT NULL,
+  autor VARCHAR(255) NOT NULL,
+  fecha_creacion DATETIME NOT NULL,
+  CONSTRAINT fk_respuestas_topico FOREIGN KEY (topico_id) REFERENCES topicos (id) ON DELETE CASCADE
+);
+CREATE INDEX idx_respuestas_topico_fecha ON respuestas (topico_id, fecha_creacion, id);
+
+-- Contadores desnormalizados en el tópico: los listados los leen en la misma fila, sin contar respuestas.
+-- Un ALTER por columna: H2 (perfil loadtest) no acepta varios ADD COLUMN juntos.
+ALTER TABLE topicos ADD COLUMN cantidad_respuestas INT NOT NULL DEFAULT 0;
+ALTER TABLE topicos ADD COLUMN fecha_ultima_respuesta DATETIME NULL;
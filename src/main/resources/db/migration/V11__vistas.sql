@@ -0,0 +1,4 @@
+-- Contador de vistas del detalle, escrito por lotes desde memoria (TopicoVistas). No cambia la versión:
+-- las vistas no forman parte del ETag. El índice sirve al listado de más vistos sin ordenar la tabla.
+ALTER TABLE topicos ADD COLUMN vistas BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX idx_topicos_vistas ON topicos (vistas, id);
@@ -0,0 +1,11 @@
+-- Usuarios. Hasta ahora la tabla la creaba Hibernate (ddl-auto=update); desde que Flyway es el único dueño
+-- del esquema la crea esta migración. IF NOT EXISTS: en las bases anteriores a Flyway (baseline en V1) ya existe.
+CREATE TABLE IF NOT EXISTS users (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  email VARCHAR(255) NOT NULL,
+  username VARCHAR(255) NOT NULL,
+  password VARCHAR(255) NOT NULL,
+  role VARCHAR(20) NOT NULL,
+  CONSTRAINT uk_users_email UNIQUE (email),
+  CONSTRAINT uk_users_username UNIQUE (username)
+);
@@ -0,0 +1,2 @@
+-- Soporta la paginación por cursor (keyset) de GET /topicos ordenada por (fecha_creacion, id)
+CREATE INDEX idx_topicos_fecha_creacion_id ON topicos (fecha_creacion, id);
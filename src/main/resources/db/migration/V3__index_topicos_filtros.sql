@@ -0,0 +1,4 @@
+-- Filtros de GET /topicos (status, curso, autor) servidos por rango de índice y ya ordenados por fecha
+CREATE INDEX idx_topicos_status_fecha ON topicos (status, fecha_creacion, id);
+CREATE INDEX idx_topicos_curso_fecha ON topicos (curso, fecha_creacion, id);
+CREATE INDEX idx_topicos_autor_fecha ON topicos (autor, fecha_creacion, id);
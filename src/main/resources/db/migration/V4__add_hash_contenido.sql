@@ -0,0 +1,3 @@
+-- Hash SHA-256 de titulo + '\n' + mensaje para detectar duplicados sin comparar el TEXT completo.
+-- Nullable hasta que V5 complete el backfill; V6 lo vuelve NOT NULL + UNIQUE.
+ALTER TABLE topicos ADD COLUMN hash_contenido CHAR(64) NULL;
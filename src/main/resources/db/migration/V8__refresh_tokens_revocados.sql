@@ -0,0 +1,24 @@
+-- Refresh tokens opacos de un solo uso: se guarda el SHA-256 del token, nunca el token.
+-- Cada rotación crea una fila nueva de la misma familia; reusar una ya usada revoca toda la familia.
+CREATE TABLE refresh_tokens (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  token_hash CHAR(64) NOT NULL,
+  familia CHAR(36) NOT NULL,
+  usuario VARCHAR(255) NOT NULL,
+  fecha_creacion DATETIME NOT NULL,
+  expira DATETIME NOT NULL,
+  fecha_uso DATETIME NULL,
+  revocado BOOLEAN NOT NULL DEFAULT FALSE,
+  CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash)
+);
+CREATE INDEX idx_refresh_tokens_familia ON refresh_tokens (familia);
+CREATE INDEX idx_refresh_tokens_expira ON refresh_tokens (expira);
+
+-- Access tokens revocados antes de su exp (logout), por jti. Se borran al vencer.
+CREATE TABLE tokens_revocados (
+  jti CHAR(36) PRIMARY KEY,
+  expira DATETIME NOT NULL,
+  fecha_revocacion DATETIME NOT NULL
+);
+CREATE INDEX idx_tokens_revocados_fecha ON tokens_revocados (fecha_revocacion);
+CREATE INDEX idx_tokens_revocados_expira ON tokens_revocados (expira);
@@ -0,0 +1,7 @@
+-- Baldes compartidos del rate limiting (forohub.rate-limit.store=jdbc): TAT de GCRA en nanos de época.
+-- Un balde con tat vencido está lleno y se puede borrar.
+CREATE TABLE limites_peticiones (
+  clave VARCHAR(320) NOT NULL PRIMARY KEY,
+  tat BIGINT NOT NULL
+);
+CREATE INDEX idx_limites_peticiones_tat ON limites_peticiones (tat);
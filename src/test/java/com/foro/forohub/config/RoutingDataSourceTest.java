@@ -0,0 +1,155 @@
+package com.foro.forohub.config;
+
+import com.foro.forohub.domain.topico.TopicoConsultas;
+import com.foro.forohub.domain.topico.TopicoExportador;
+import com.foro.forohub.domain.topico.TopicoFiltro;
+import com.foro.forohub.domain.topico.TopicoRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Enrutamiento primaria/réplica sobre dos H2 en memoria: cada una tiene una fila que dice cuál es.
+ */
+class RoutingDataSourceTest {
+
+    private DataSource ds;
+    private DataSourceTransactionManager tx;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate escritura;
+    private TransactionTemplate lectura;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primaria = h2("primaria");
+        DataSource replica = h2("replica");
+        ds = new LazyConnectionDataSourceProxy(new RoutingDataSource(primaria, replica));
+        tx = new DataSourceTransactionManager(ds);
+        jdbc = new JdbcTemplate(ds);
+        escritura = new TransactionTemplate(tx);
+        lectura = new TransactionTemplate(tx);
+        lectura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoutingDataSource.forzarPrimaria(false);
+    }
+
+    @Test
+    void soloLecturaVaALaReplica() {
+        assertEquals("replica", lectura.execute(s -> origen()));
+    }
+
+    @Test
+    void escrituraYSinTransaccionVanALaPrimaria() {
+        assertEquals("primaria", escritura.execute(s -> origen()));
+        assertEquals("primaria", origen());
+    }
+
+    @Test
+    void lecturaDentroDeUnaEscrituraUsaLaMismaConexion() {
+        assertEquals("primaria", escritura.execute(s -> lectura.execute(s2 -> origen())));
+    }
+
+    @Test
+    void trasEscribirElMismoUsuarioLeeDeLaPrimaria() {
+        var interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1), 100);
+        var response = new MockHttpServletResponse();
+
+        MockHttpServletRequest post = peticion("POST", "10.0.0.1");
+        interceptor.preHandle(post, response, null);
+        interceptor.afterCompletion(post, response, null, null);
+
+        MockHttpServletRequest mismo = peticion("GET", "10.0.0.1");
+        interceptor.preHandle(mismo, response, null);
+        assertEquals("primaria", lectura.execute(s -> origen()));
+        interceptor.afterCompletion(mismo, response, null, null);
+
+        MockHttpServletRequest otro = peticion("GET", "10.0.0.2");
+        interceptor.preHandle(otro, response, null);
+        assertEquals("replica", lectura.execute(s -> origen()));
+        interceptor.afterCompletion(otro, response, null, null);
+    }
+
+    @Test
+    void lasLecturasCacheadasSeLlenanDesdeLaPrimaria() {
+        // Como @Transactional(readOnly = true) de TopicoConsultas: la consulta del repositorio dice de dónde leyó
+        TopicoRepository repository = mock(TopicoRepository.class);
+        when(repository.findDtoById(1L)).thenAnswer(inv -> {
+            assertEquals("primaria", origen());
+            return Optional.empty();
+        });
+        TopicoConsultas consultas = new TopicoConsultas(repository);
+
+        lectura.executeWithoutResult(s -> consultas.detalle(1L));
+        // Fuera del método cacheado el hilo vuelve a leer de la réplica
+        assertEquals("replica", lectura.execute(s -> origen()));
+    }
+
+    @Test
+    void enPrimariaNoQuitaElPinDeLaPeticion() {
+        RoutingDataSource.forzarPrimaria(true);
+        RoutingDataSource.enPrimaria(() -> null);
+        assertEquals("primaria", lectura.execute(s -> origen()));
+    }
+
+    @Test
+    void laExportacionLeeDeLaReplica() throws Exception {
+        var exportador = new TopicoExportador(ds, tx, Jackson2ObjectMapperBuilder.json().build(), 100);
+        var out = new ByteArrayOutputStream();
+
+        exportador.exportar(new TopicoFiltro(null, null, null), null, null, TopicoExportador.Formato.NDJSON, out);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.contains("\"titulo\":\"replica\""), ndjson);
+    }
+
+    // ================= Helpers =================
+
+    private String origen() {
+        return jdbc.queryForObject("SELECT nombre FROM origen", String.class);
+    }
+
+    private static DataSource h2(String nombre) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS origen (nombre VARCHAR(20))");
+        jdbc.update("DELETE FROM origen");
+        jdbc.update("INSERT INTO origen VALUES (?)", nombre);
+        jdbc.execute("""
+                CREATE TABLE IF NOT EXISTS topicos (id BIGINT PRIMARY KEY, titulo VARCHAR(100), mensaje VARCHAR(100),
+                    fecha_creacion TIMESTAMP, status VARCHAR(20), autor VARCHAR(100), curso VARCHAR(100),
+                    fecha_actualizacion TIMESTAMP, version BIGINT, cantidad_respuestas INT, fecha_ultima_respuesta TIMESTAMP)""");
+        jdbc.update("DELETE FROM topicos");
+        jdbc.update("INSERT INTO topicos VALUES (1, ?, 'm', CURRENT_TIMESTAMP, 'ABIERTO', 'a', 'c', CURRENT_TIMESTAMP, 0, 0, NULL)",
+                nombre);
+        return ds;
+    }
+
+    private static MockHttpServletRequest peticion(String method, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/topicos");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
@@ -0,0 +1,132 @@
+package com.foro.forohub.domain.topico;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foro.forohub.api.dto.TopicoCreateDTO;
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import jakarta.validation.Validation;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Importación sobre H2 en modo MySQL: el resultado de cada fila tiene que coincidir con lo que quedó en la tabla.
+ */
+class TopicoImportadorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Object> eventos = new ArrayList<>();
+    private JdbcDataSource ds;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:importador-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("""
+                CREATE TABLE topicos (id BIGINT AUTO_INCREMENT PRIMARY KEY, titulo VARCHAR(200) NOT NULL,
+                    mensaje VARCHAR(1000) NOT NULL, fecha_creacion DATETIME(6) NOT NULL, status VARCHAR(30) NOT NULL,
+                    autor VARCHAR(100) NOT NULL, curso VARCHAR(100) NOT NULL, fecha_actualizacion DATETIME(6) NOT NULL,
+                    version BIGINT NOT NULL, hash_contenido CHAR(64) NOT NULL,
+                    CONSTRAINT uk_topicos_hash_contenido UNIQUE (hash_contenido))""");
+    }
+
+    @Test
+    void separaAceptadosDeDuplicadosEnLaTablaYEnElLote() throws Exception {
+        jdbc.update("INSERT INTO topicos (titulo, mensaje, fecha_creacion, fecha_actualizacion, version, status, autor,"
+                        + " curso, hash_contenido) VALUES ('t1', 'm1', NOW(), NOW(), 0, 'ABIERTO', 'x', 'y', ?)",
+                Topico.hashDe("t1", "m1"));
+
+        List<JsonNode> salida = importar(importador(jdbc), fila("t1", "m1"), fila("t2", "m2"), fila("t2", "m2"), fila("t3", "m3"));
+
+        assertEquals(List.of("DUPLICADO", "ACEPTADO", "DUPLICADO", "ACEPTADO"), resultados(salida));
+        assertEquals(2, salida.getLast().get("aceptados").asInt());
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM topicos", Integer.class));
+        assertEquals(2, eventos.size());
+    }
+
+    @Test
+    void unaFilaQueOtroInsertaDuranteElLoteEsDuplicado() throws Exception {
+        // Otro proceso inserta el mismo contenido entre la consulta de duplicados y el batch
+        JdbcTemplate concurrente = new JdbcTemplate(ds) {
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> tipo, Object... args) {
+                List<T> existentes = super.queryForList(sql, tipo, args);
+                update("INSERT INTO topicos (titulo, mensaje, fecha_creacion, fecha_actualizacion, version, status,"
+                                + " autor, curso, hash_contenido) VALUES ('t2', 'm2', NOW(), NOW(), 0, 'ABIERTO', 'otro', 'c', ?)",
+                        Topico.hashDe("t2", "m2"));
+                return existentes;
+            }
+        };
+
+        List<JsonNode> salida = importar(importador(concurrente), fila("t1", "m1"), fila("t2", "m2"));
+
+        assertEquals(List.of("ACEPTADO", "DUPLICADO"), resultados(salida));
+        assertEquals("otro", jdbc.queryForObject("SELECT autor FROM topicos WHERE titulo = 't2'", String.class));
+        assertEquals(1, eventos.size());
+    }
+
+    @Test
+    void unValorQueLaColumnaNoAdmiteEsInvalidoSinTumbarElLote() throws Exception {
+        String largo = "x".repeat(1001);
+
+        List<JsonNode> salida = importar(importador(jdbc), fila("t1", "m1"), fila("t2", largo), fila("t3", "m3"));
+
+        assertEquals(List.of("ACEPTADO", "INVALIDO", "ACEPTADO"), resultados(salida));
+        assertEquals("valor no admitido por la columna", salida.get(1).get("errores").get("bd").asText());
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM topicos", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM topicos WHERE titulo = 't2'", Integer.class));
+        assertEquals(1, salida.getLast().get("invalidos").asInt());
+    }
+
+    // ================= Helpers =================
+
+    private TopicoImportador importador(JdbcTemplate plantilla) {
+        TopicoRepository repository = mock(TopicoRepository.class);
+        when(repository.findDtoByHashContenidoIn(any())).thenAnswer(inv -> {
+            Collection<String> hashes = inv.getArgument(0);
+            return jdbc.query("SELECT * FROM topicos WHERE hash_contenido IN ("
+                            + String.join(",", hashes.stream().map(h -> "'" + h + "'").toList()) + ")",
+                    (rs, n) -> new TopicoResponseDTO(rs.getLong("id"), rs.getString("titulo"), rs.getString("mensaje"),
+                            rs.getTimestamp("fecha_creacion").toLocalDateTime(), StatusTopico.valueOf(rs.getString("status")),
+                            rs.getString("autor"), rs.getString("curso"), rs.getTimestamp("fecha_actualizacion").toLocalDateTime(),
+                            rs.getLong("version"), 0, null));
+        });
+        ApplicationEventPublisher publicador = eventos::add;
+        return new TopicoImportador(plantilla, repository, publicador,
+                Validation.buildDefaultValidatorFactory().getValidator(), mapper, new DataSourceTransactionManager(ds), 100);
+    }
+
+    private List<JsonNode> importar(TopicoImportador importador, String... filas) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importador.importar(new ByteArrayInputStream(String.join("\n", filas).getBytes(StandardCharsets.UTF_8)), out);
+        List<JsonNode> salida = new ArrayList<>();
+        for (String linea : out.toString(StandardCharsets.UTF_8).split("\n")) salida.add(mapper.readTree(linea));
+        return salida;
+    }
+
+    private String fila(String titulo, String mensaje) throws Exception {
+        return mapper.writeValueAsString(new TopicoCreateDTO(titulo, mensaje, "autor", "curso"));
+    }
+
+    private static List<String> resultados(List<JsonNode> salida) {
+        return salida.subList(0, salida.size() - 1).stream().map(n -> n.get("resultado").asText()).toList();
+    }
+}
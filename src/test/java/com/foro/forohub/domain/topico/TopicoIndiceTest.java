@@ -0,0 +1,140 @@
+package com.foro.forohub.domain.topico;
+
+import com.foro.forohub.api.dto.TopicoResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranking BM25, lápidas y compactación del índice en memoria (sin base: se alimenta con {@code indexar}).
+ */
+class TopicoIndiceTest {
+
+    private static final TopicoFiltro SIN_FILTRO = new TopicoFiltro(null, null, null);
+
+    private TopicoIndice indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new TopicoIndice(new DriverManagerDataSource(), 100, false);
+    }
+
+    @Test
+    void ordenaPorPuntajeYDesempataPorIdMasReciente() {
+        indexar(1, "java", "spring");           // spring solo en el mensaje
+        indexar(2, "spring", "java");           // en el título pesa doble
+        indexar(3, "spring", "java");           // igual que 2: gana el id mayor
+        indexar(4, "python", "django");         // no coincide
+
+        assertEquals(List.of(3L, 2L, 1L), ids(buscar("spring")));
+        assertEquals(3, buscar("spring").getTotalElements());
+    }
+
+    @Test
+    void masTerminosCoincidentesPuntuanMas() {
+        indexar(1, "hibernate", "consultas lentas");
+        indexar(2, "hibernate", "cache de segundo nivel");
+        indexar(3, "redis", "cache distribuida");
+
+        Page<TopicoIndice.Resultado> r = buscar("hibernate cache");
+        assertEquals(2L, r.getContent().get(0).id());
+        assertEquals(3, r.getTotalElements());
+    }
+
+    @Test
+    void paginaSobreElTopK() {
+        for (int i = 1; i <= 25; i++) indexar(i, "tema", "texto"); // mismo puntaje: ordena el id
+
+        Page<TopicoIndice.Resultado> segunda = indice.buscar("tema", SIN_FILTRO, PageRequest.of(1, 10));
+        assertEquals(25, segunda.getTotalElements());
+        assertEquals(15L, segunda.getContent().get(0).id());
+        assertEquals(10, segunda.getNumberOfElements());
+    }
+
+    @Test
+    void borradosYVersionesViejasNoAparecen() {
+        indexar(1, "gradle", "build");
+        indexar(2, "gradle", "plugins");
+        indice.eliminar(1L);
+        indexar(2, "maven", "plugins"); // actualización: "gradle" ya no está en el tópico 2
+
+        assertEquals(0, buscar("gradle").getTotalElements());
+        assertEquals(List.of(2L), ids(buscar("maven")));
+        assertEquals(1, indice.estadisticas().documentos());
+    }
+
+    @Test
+    void filtraPorCursoYStatus() {
+        indice.indexar(dto(1, "docker", "compose", "Infra", StatusTopico.ABIERTO));
+        indice.indexar(dto(2, "docker", "swarm", "Infra", StatusTopico.CERRADO));
+        indice.indexar(dto(3, "docker", "imagenes", "Java", StatusTopico.ABIERTO));
+
+        Page<TopicoIndice.Resultado> r = indice.buscar("docker",
+                new TopicoFiltro(StatusTopico.ABIERTO, "Infra", null), PageRequest.of(0, 10));
+        assertEquals(List.of(1L), ids(r));
+        assertEquals(1, r.getTotalElements());
+    }
+
+    @Test
+    void laCompactacionRenumeraYAcotaLosOrdinales() {
+        for (int i = 1; i <= 500; i++) indexar(i, "tema " + i, "original");
+        for (int vuelta = 0; vuelta < 20; vuelta++) {
+            for (int i = 1; i <= 500; i++) indexar(i, "tema " + i, vuelta % 2 == 0 ? "editado" : "revisado");
+        }
+        for (int i = 1; i <= 100; i++) indice.eliminar((long) i);
+
+        TopicoIndice.Estadisticas e = indice.estadisticas();
+        assertEquals(400, e.documentos());
+        // 10.500 escrituras: sin renumerar serían 10.500 ordinales
+        assertTrue(e.ordinales() <= 400 + 1024 + 400, "ordinales: " + e.ordinales());
+        assertTrue(e.postings() <= (long) e.ordinales() * 3, "postings: " + e.postings());
+
+        // Tras la compactación el ranking y los filtros siguen viendo cada tópico con su última versión
+        assertEquals(0, buscar("original").getTotalElements());
+        assertEquals(0, buscar("editado").getTotalElements());
+        assertEquals(400, buscar("revisado").getTotalElements());
+        assertEquals(List.of(250L), ids(buscar("250")));
+        assertEquals(0, buscar("50").getTotalElements());
+    }
+
+    @Test
+    void laCompactacionConservaElOrden() {
+        for (int i = 1; i <= 2000; i++) indexar(i, "relleno", "texto");
+        // La lápida 1024 supera a los 976 vivos y compacta; las 476 siguientes quedan como lápidas
+        for (int i = 1; i <= 1500; i++) indice.eliminar((long) i);
+        indexar(3000, "relleno", "texto"); // ordinal nuevo tras la renumeración
+
+        // Las posting lists siguen ordenadas: el recorrido en paralelo no pierde ni repite documentos
+        Page<TopicoIndice.Resultado> r = indice.buscar("relleno texto", SIN_FILTRO, PageRequest.of(0, 3));
+        assertEquals(List.of(3000L, 2000L, 1999L), ids(r));
+        assertEquals(501, r.getTotalElements());
+        assertEquals(976 + 1, indice.estadisticas().ordinales());
+    }
+
+    // ================= Helpers =================
+
+    private void indexar(long id, String titulo, String mensaje) {
+        indice.indexar(dto(id, titulo, mensaje, "Curso", StatusTopico.ABIERTO));
+    }
+
+    private Page<TopicoIndice.Resultado> buscar(String q) {
+        return indice.buscar(q, SIN_FILTRO, PageRequest.of(0, 10));
+    }
+
+    private static List<Long> ids(Page<TopicoIndice.Resultado> page) {
+        return page.map(TopicoIndice.Resultado::id).toList();
+    }
+
+    private static TopicoResponseDTO dto(long id, String titulo, String mensaje, String curso, StatusTopico status) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return new TopicoResponseDTO(id, titulo, mensaje, ahora, status, "autor", curso, ahora, 0L, 0, null);
+    }
+}
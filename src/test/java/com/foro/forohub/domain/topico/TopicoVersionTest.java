@@ -0,0 +1,46 @@
+package com.foro.forohub.domain.topico;
+
+import com.foro.forohub.config.MessageConverterConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static com.foro.forohub.config.MessageConverterConfig.APPLICATION_SMILE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ETag del detalle por representación: el formato se elige del Accept antes de serializar y cada uno tiene el suyo.
+ */
+class TopicoVersionTest {
+
+    @Test
+    void cadaFormatoTieneSuETagFuerte() {
+        assertEquals("\"7\"", TopicoVersion.etag(7L, MediaType.APPLICATION_JSON));
+        assertEquals("\"7-cbor\"", TopicoVersion.etag(7L, MediaType.APPLICATION_CBOR));
+        assertEquals("\"7-x-jackson-smile\"", TopicoVersion.etag(7L, APPLICATION_SMILE));
+    }
+
+    @Test
+    void ifMatchAceptaElETagDeCualquierFormato() {
+        assertEquals(7L, TopicoVersion.deIfMatch("\"7\""));
+        assertEquals(7L, TopicoVersion.deIfMatch("\"7-cbor\""));
+        assertNull(TopicoVersion.deIfMatch("*"));
+        assertThrows(IllegalArgumentException.class, () -> TopicoVersion.deIfMatch("W/\"7\""));
+        assertThrows(IllegalArgumentException.class, () -> TopicoVersion.deIfMatch("\"-cbor\""));
+    }
+
+    @Test
+    void elFormatoSaleDelAcceptComoEnLaNegociacion() {
+        assertEquals(MediaType.APPLICATION_JSON, MessageConverterConfig.formato(null));
+        assertEquals(MediaType.APPLICATION_JSON, MessageConverterConfig.formato("*/*"));
+        assertEquals(MediaType.APPLICATION_CBOR, MessageConverterConfig.formato("application/cbor"));
+        assertEquals(APPLICATION_SMILE,
+                MessageConverterConfig.formato("application/json;q=0.5, application/x-jackson-smile"));
+        // el rango más específico decide la calidad de cada formato
+        assertEquals(MediaType.APPLICATION_CBOR, MessageConverterConfig.formato("application/*;q=0.1, application/cbor"));
+        assertEquals(APPLICATION_SMILE,
+                MessageConverterConfig.formato("application/*;q=0.8, application/cbor;q=0, application/json;q=0.5"));
+        assertNull(MessageConverterConfig.formato("text/html"));
+    }
+}
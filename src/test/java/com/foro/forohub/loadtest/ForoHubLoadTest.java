@@ -0,0 +1,127 @@
+package com.foro.forohub.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foro.forohub.domain.topico.TopicoImportador;
+import com.foro.forohub.domain.user.Role;
+import com.foro.forohub.domain.user.User;
+import com.foro.forohub.domain.user.UserRepository;
+import com.foro.forohub.loadtest.GeneradorCarga.Credencial;
+import com.foro.forohub.loadtest.GeneradorCarga.Operacion;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de punta a punta: levanta la aplicación completa sobre H2 (modo MySQL, migraciones Flyway),
+ * siembra usuarios y tópicos y ejecuta la mezcla de operaciones por HTTP con {@link GeneradorCarga}.
+ * Imprime el reporte y lo deja en target/loadtest-report.txt. Solo corre con {@code ./mvnw -Ploadtest test}.
+ * <p>
+ * H2 en memoria no se comporta como MySQL bajo contención: los números sirven para comparar cambios
+ * de la aplicación entre sí (antes/después), no como capacidad de producción.
+ */
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ForoHubLoadTest {
+
+    private static final String PASSWORD = "carga123";
+
+    @LocalServerPort int port;
+    @Autowired UserRepository users;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired TopicoImportador importador;
+    @Autowired PasswordEncoder encoder;
+    @Autowired ObjectMapper mapper;
+
+    @Value("${forohub.loadtest.usuarios}") int cantidadUsuarios;
+    @Value("${forohub.loadtest.topicos}") int cantidadTopicos;
+    @Value("${forohub.loadtest.clientes}") int clientes;
+    @Value("${forohub.loadtest.calentamiento}") Duration calentamiento;
+    @Value("${forohub.loadtest.duracion}") Duration duracion;
+    @Value("${forohub.loadtest.mezcla}") String mezcla;
+    @Value("${forohub.loadtest.max-errores}") double maxErrores;
+    @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales;
+
+    @Test
+    void cargaMixta() throws Exception {
+        List<Credencial> credenciales = sembrarUsuarios();
+        long maxId = sembrarTopicos();
+
+        var config = new GeneradorCarga.Config(URI.create("http://localhost:" + port), credenciales, maxId,
+                clientes, calentamiento, duracion, parsearMezcla(mezcla));
+        GeneradorCarga.Reporte reporte = new GeneradorCarga(config, mapper).ejecutar();
+
+        String texto = String.format("%d clientes, %d usuarios, %d tópicos sembrados, %s de medición, hilos %s%n%s",
+                clientes, cantidadUsuarios, cantidadTopicos, duracion, hilosVirtuales ? "virtuales" : "de plataforma", reporte);
+        System.out.println(texto);
+        Files.writeString(Path.of("target", "loadtest-report.txt"), texto);
+
+        assertTrue(reporte.peticiones() > 0, "no se completó ninguna petición");
+        double tasa = (double) reporte.errores() / reporte.peticiones();
+        assertTrue(tasa <= maxErrores, "tasa de errores " + tasa + " > " + maxErrores);
+    }
+
+    // ================= Datos =================
+
+    private List<Credencial> sembrarUsuarios() {
+        List<User> nuevos = new ArrayList<>(cantidadUsuarios);
+        String hash = encoder.encode(PASSWORD); // mismo hash para todos: sembrar no debe costar N hashes
+        for (int i = 0; i < cantidadUsuarios; i++) {
+            nuevos.add(User.builder()
+                    .email("carga" + i + "@mail.com")
+                    .username("carga" + i)
+                    .password(hash)
+                    .role(Role.USER)
+                    .build());
+        }
+        return users.saveAll(nuevos).stream()
+                .map(u -> new Credencial(u.getEmail(), PASSWORD))
+                .toList();
+    }
+
+    /** Siembra por el importador (mismo camino que POST /topicos/importar); devuelve el mayor id. */
+    private long sembrarTopicos() throws IOException {
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (int i = 0; i < cantidadTopicos; i++) {
+            Map<String, String> t = Map.of(
+                    "titulo", "Tópico sembrado " + i,
+                    "mensaje", "Mensaje del tópico sembrado " + i + " sobre Spring Boot, JPA y seguridad con JWT",
+                    "autor", "carga" + (i % Math.max(1, cantidadUsuarios)),
+                    "curso", "Curso " + (i % 20));
+            ndjson.write(mapper.writeValueAsBytes(t));
+            ndjson.write('\n');
+        }
+        TopicoImportador.Resumen r = importador.importar(
+                new ByteArrayInputStream(ndjson.toByteArray()), OutputStream.nullOutputStream());
+        assertTrue(r.aceptados() == cantidadTopicos, "siembra incompleta: " + r);
+        return jdbc.queryForObject("SELECT MAX(id) FROM topicos", Long.class);
+    }
+
+    /** "login:2,listar:30,..." -> pesos por operación (en el orden declarado). */
+    private static Map<Operacion, Integer> parsearMezcla(String mezcla) {
+        Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+        for (String parte : mezcla.split(",")) {
+            String[] kv = parte.trim().split(":");
+            pesos.put(Operacion.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        return pesos;
+    }
+}
@@ -0,0 +1,287 @@
+package com.foro.forohub.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga en la misma JVM: N clientes en lazo cerrado (cada uno en un hilo virtual, sin pausa
+ * entre peticiones) eligen la siguiente operación según los pesos de la mezcla. Tras el calentamiento se
+ * mide latencia por operación, throughput y asignación de memoria de todo el proceso (servidor y clientes).
+ */
+final class GeneradorCarga {
+
+    enum Operacion { LOGIN, LISTAR, DETALLE, CREAR, ACTUALIZAR, ELIMINAR }
+
+    record Credencial(String username, String password) {}
+
+    record Config(URI base, List<Credencial> usuarios, long maxIdSembrado, int clientes,
+                  Duration calentamiento, Duration duracion, Map<Operacion, Integer> mezcla) {}
+
+    /** Latencias en ms de una operación durante la fase medida. */
+    record Estadistica(Operacion operacion, long peticiones, long errores,
+                       double p50, double p95, double p99, double max) {}
+
+    record Reporte(List<Estadistica> operaciones, double segundos, long bytesAsignados,
+                   long colecciones, long msEnGc) {
+
+        long peticiones() {
+            return operaciones.stream().mapToLong(Estadistica::peticiones).sum();
+        }
+
+        long errores() {
+            return operaciones.stream().mapToLong(Estadistica::errores).sum();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%-11s %9s %9s %8s %9s %9s %9s %9s%n",
+                    "operación", "peticiones", "req/s", "errores", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+            for (Estadistica e : operaciones) {
+                sb.append(String.format(Locale.ROOT, "%-11s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                        e.operacion().name().toLowerCase(Locale.ROOT), e.peticiones(), e.peticiones() / segundos,
+                        e.errores(), e.p50(), e.p95(), e.p99(), e.max()));
+            }
+            long total = peticiones();
+            sb.append(String.format(Locale.ROOT, "%-11s %9d %9.1f %8d%n", "total", total, total / segundos, errores()));
+            if (bytesAsignados >= 0) {
+                sb.append(String.format(Locale.ROOT, "asignación: %.1f MB/s, %.1f KB por petición (servidor + generador)%n",
+                        bytesAsignados / segundos / (1 << 20), total == 0 ? 0.0 : bytesAsignados / 1024.0 / total));
+            }
+            sb.append(String.format(Locale.ROOT, "gc: %d colecciones, %d ms en %.1f s%n", colecciones, msEnGc, segundos));
+            return sb.toString();
+        }
+    }
+
+    private final Config config;
+    private final HttpClient http;
+    private final ObjectMapper mapper;
+    private final Operacion[] ruleta;
+    /** Tópicos creados por la propia carga: los únicos que se eliminan, para no vaciar los datos sembrados. */
+    private final Queue<Long> creados = new ConcurrentLinkedQueue<>();
+    private final AtomicLong secuencia = new AtomicLong();
+
+    private volatile boolean midiendo;
+    private volatile boolean terminado;
+
+    GeneradorCarga(Config config, ObjectMapper mapper) {
+        this.config = config;
+        this.mapper = mapper;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<Operacion> r = new ArrayList<>();
+        config.mezcla().forEach((op, peso) -> r.addAll(Collections.nCopies(peso, op)));
+        if (r.isEmpty()) throw new IllegalArgumentException("La mezcla de operaciones está vacía");
+        this.ruleta = r.toArray(Operacion[]::new);
+    }
+
+    Reporte ejecutar() throws InterruptedException {
+        List<Cliente> clientes = new ArrayList<>(config.clientes());
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.clientes(); i++) {
+                Cliente c = new Cliente(config.usuarios().get(i % config.usuarios().size()));
+                clientes.add(c);
+                hilos.submit(c);
+            }
+
+            TimeUnit.MILLISECONDS.sleep(config.calentamiento().toMillis());
+            long bytes0 = bytesAsignados();
+            long[] gc0 = gc();
+            long t0 = System.nanoTime();
+            midiendo = true;
+
+            TimeUnit.MILLISECONDS.sleep(config.duracion().toMillis());
+            midiendo = false;
+            double segundos = (System.nanoTime() - t0) / 1e9;
+            long bytes1 = bytesAsignados();
+            long[] gc1 = gc();
+            terminado = true;
+            hilos.shutdown();
+            hilos.awaitTermination(1, TimeUnit.MINUTES);
+
+            List<Estadistica> operaciones = new ArrayList<>();
+            for (Operacion op : Operacion.values()) {
+                Muestras total = new Muestras();
+                clientes.forEach(c -> total.agregar(c.muestras[op.ordinal()]));
+                if (total.n > 0) operaciones.add(total.estadistica(op));
+            }
+            return new Reporte(operaciones, segundos, bytes0 < 0 ? -1 : bytes1 - bytes0,
+                    gc1[0] - gc0[0], gc1[1] - gc0[1]);
+        }
+    }
+
+    // ================= Clientes =================
+
+    /** Un usuario virtual: hace login una vez y luego repite operaciones con su token. */
+    private final class Cliente implements Runnable {
+
+        private final Credencial credencial;
+        private final Muestras[] muestras = new Muestras[Operacion.values().length];
+        private String token;
+
+        Cliente(Credencial credencial) {
+            this.credencial = credencial;
+            for (int i = 0; i < muestras.length; i++) muestras[i] = new Muestras();
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            while (!terminado) {
+                Operacion op = token == null ? Operacion.LOGIN : ruleta[rnd.nextInt(ruleta.length)];
+                long t0 = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = ejecutar(op, rnd);
+                } catch (IOException ex) {
+                    ok = false;
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                if (midiendo) muestras[op.ordinal()].registrar(System.nanoTime() - t0, ok);
+            }
+        }
+
+        /** Ejecuta la operación y devuelve si el código de estado es uno de los esperados. */
+        private boolean ejecutar(Operacion op, ThreadLocalRandom rnd) throws IOException, InterruptedException {
+            return switch (op) {
+                case LOGIN -> {
+                    HttpResponse<String> r = enviar(post("/auth/login",
+                            mapper.writeValueAsString(Map.of("username", credencial.username(), "password", credencial.password()))));
+                    if (r.statusCode() != 200) yield false;
+                    token = mapper.readTree(r.body()).get("token").asText();
+                    yield true;
+                }
+                case LISTAR -> enviar(get("/topicos?page=" + rnd.nextInt(5) + "&size=20")).statusCode() == 200;
+                case DETALLE -> {
+                    int s = enviar(get("/topicos/" + idAleatorio(rnd))).statusCode();
+                    yield s == 200 || s == 404; // 404: ya eliminado por otro cliente
+                }
+                case CREAR -> crear();
+                case ACTUALIZAR -> {
+                    String cuerpo = mapper.writeValueAsString(Map.of("mensaje", "Mensaje editado " + secuencia.incrementAndGet()));
+                    int s = enviar(peticion("/topicos/" + idAleatorio(rnd))
+                            .PUT(HttpRequest.BodyPublishers.ofString(cuerpo)).build()).statusCode();
+                    yield s == 200 || s == 404;
+                }
+                case ELIMINAR -> {
+                    Long id = creados.poll();
+                    if (id == null) yield crear(); // aún no hay tópicos propios que borrar
+                    yield enviar(peticion("/topicos/" + id).DELETE().build()).statusCode() == 204;
+                }
+            };
+        }
+
+        private boolean crear() throws IOException, InterruptedException {
+            long n = secuencia.incrementAndGet();
+            String cuerpo = mapper.writeValueAsString(Map.of(
+                    "titulo", "Tópico de carga " + n,
+                    "mensaje", "Mensaje generado por la prueba de carga número " + n,
+                    "autor", credencial.username(),
+                    "curso", "Carga"));
+            HttpResponse<String> r = enviar(post("/topicos", cuerpo));
+            if (r.statusCode() != 201) return false;
+            creados.add(mapper.readTree(r.body()).get("id").asLong());
+            return true;
+        }
+
+        private HttpRequest get(String path) {
+            return peticion(path).GET().build();
+        }
+
+        private HttpRequest post(String path, String json) {
+            return peticion(path).POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        }
+
+        private HttpRequest.Builder peticion(String path) {
+            HttpRequest.Builder b = HttpRequest.newBuilder(config.base().resolve(path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json");
+            if (token != null) b.header("Authorization", "Bearer " + token);
+            return b;
+        }
+
+        private HttpResponse<String> enviar(HttpRequest req) throws IOException, InterruptedException {
+            return http.send(req, HttpResponse.BodyHandlers.ofString());
+        }
+
+        private long idAleatorio(ThreadLocalRandom rnd) {
+            return rnd.nextLong(1, config.maxIdSembrado() + 1);
+        }
+    }
+
+    /** Latencias crudas (ns) de un cliente; solo lo escribe su propio hilo. */
+    private static final class Muestras {
+
+        private long[] nanos = new long[1024];
+        private int n;
+        private long errores;
+
+        void registrar(long ns, boolean ok) {
+            if (n == nanos.length) nanos = Arrays.copyOf(nanos, n * 2);
+            nanos[n++] = ns;
+            if (!ok) errores++;
+        }
+
+        void agregar(Muestras otra) {
+            if (n + otra.n > nanos.length) nanos = Arrays.copyOf(nanos, n + otra.n);
+            System.arraycopy(otra.nanos, 0, nanos, n, otra.n);
+            n += otra.n;
+            errores += otra.errores;
+        }
+
+        Estadistica estadistica(Operacion op) {
+            long[] orden = Arrays.copyOf(nanos, n);
+            Arrays.sort(orden);
+            return new Estadistica(op, n, errores,
+                    ms(percentil(orden, 0.50)), ms(percentil(orden, 0.95)), ms(percentil(orden, 0.99)), ms(orden[n - 1]));
+        }
+
+        private static long percentil(long[] orden, double p) {
+            return orden[Math.min(orden.length - 1, (int) Math.ceil(p * orden.length) - 1)];
+        }
+
+        private static double ms(long ns) {
+            return ns / 1e6;
+        }
+    }
+
+    // ================= Métricas de la JVM =================
+
+    /** Bytes asignados en el heap por todos los hilos desde el arranque, o -1 si la JVM no lo expone. */
+    private static long bytesAsignados() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+                && t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled()) {
+            return t.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /** {colecciones, ms} acumulados de todos los recolectores. */
+    private static long[] gc() {
+        long colecciones = 0, ms = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            colecciones += Math.max(0, gc.getCollectionCount());
+            ms += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{colecciones, ms};
+    }
+}
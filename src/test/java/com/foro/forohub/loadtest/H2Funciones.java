@@ -0,0 +1,23 @@
+package com.foro.forohub.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Funciones de MySQL que usa la aplicación y que H2 no trae; se registran como alias
+ * en el INIT de la URL del perfil loadtest.
+ */
+public final class H2Funciones {
+
+    private H2Funciones() {}
+
+    /** SHA2(texto, 256) de MySQL: SHA-256 en hexadecimal (solo se usa con 256 bits). */
+    public static String sha2(String texto, int bits) throws NoSuchAlgorithmException {
+        if (texto == null) return null;
+        if (bits != 256) throw new IllegalArgumentException("SHA2 con " + bits + " bits no soportado");
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+}
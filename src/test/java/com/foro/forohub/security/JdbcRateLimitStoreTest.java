@@ -0,0 +1,121 @@
+package com.foro.forohub.security;
+
+import com.foro.forohub.security.RateLimitStore.Decision;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Baldes compartidos sobre H2 con la tabla de V9. Dos stores sobre la misma base hacen de dos instancias;
+ * las carreras se provocan haciendo consumir a la "otra" justo después de que esta lea el TAT.
+ */
+class JdbcRateLimitStoreTest {
+
+    private static final RateLimit POR_HORA = new RateLimit(3, Duration.ofHours(1));
+
+    private JdbcDataSource ds;
+    private JdbcTemplate jdbc;
+    private JdbcRateLimitStore otra;
+
+    @BeforeEach
+    void setUp() {
+        ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:limites-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V9__limites_de_peticiones.sql")).execute(ds);
+        jdbc = new JdbcTemplate(ds);
+        otra = new JdbcRateLimitStore(jdbc);
+    }
+
+    @Test
+    void laRafagaSeComparteEntreInstancias() {
+        JdbcRateLimitStore una = new JdbcRateLimitStore(new JdbcTemplate(ds));
+
+        assertEquals(2, una.tryConsume("ip", POR_HORA).remaining());
+        assertEquals(1, otra.tryConsume("ip", POR_HORA).remaining());
+        assertEquals(0, una.tryConsume("ip", POR_HORA).remaining());
+        Decision d = otra.tryConsume("ip", POR_HORA);
+
+        assertFalse(d.allowed());
+        assertTrue(d.retryAfter().compareTo(Duration.ofMinutes(19)) > 0);
+    }
+
+    @Test
+    void siOtraInstanciaActualizaEntreLecturaYEscrituraSeReintenta() {
+        otra.tryConsume("ip", POR_HORA);
+        AtomicInteger lecturas = new AtomicInteger();
+        JdbcRateLimitStore store = new JdbcRateLimitStore(conCarrera(lecturas, 1, POR_HORA));
+
+        Decision d = store.tryConsume("ip", POR_HORA);
+
+        assertEquals(2, lecturas.get()); // el UPDATE ... WHERE tat = ? falló una vez
+        assertTrue(d.allowed());
+        assertEquals(0, d.remaining()); // cuenta el token que gastó la otra
+        assertFalse(otra.tryConsume("ip", POR_HORA).allowed());
+    }
+
+    @Test
+    void siOtraInstanciaCreaElBaldePrimeroSeReintenta() {
+        AtomicInteger lecturas = new AtomicInteger();
+        JdbcRateLimitStore store = new JdbcRateLimitStore(conCarrera(lecturas, 1, POR_HORA));
+
+        Decision d = store.tryConsume("ip", POR_HORA);
+
+        assertEquals(2, lecturas.get()); // el INSERT chocó con la clave primaria
+        assertEquals(1, d.remaining());
+    }
+
+    @Test
+    void conContencionSostenidaDejaPasar() {
+        AtomicInteger lecturas = new AtomicInteger();
+        RateLimit holgado = new RateLimit(100, Duration.ofHours(1));
+        JdbcRateLimitStore store = new JdbcRateLimitStore(conCarrera(lecturas, Integer.MAX_VALUE, holgado));
+
+        Decision d = store.tryConsume("ip", holgado);
+
+        assertEquals(Decision.UNLIMITED, d);
+        assertEquals(5, lecturas.get());
+    }
+
+    @Test
+    void purgeBorraSoloLosBaldesLlenos() {
+        jdbc.update("INSERT INTO limites_peticiones (clave, tat) VALUES ('vencido', 1)");
+        otra.tryConsume("activo", POR_HORA);
+
+        otra.purge();
+
+        assertEquals(List.of("activo"), jdbc.queryForList("SELECT clave FROM limites_peticiones", String.class));
+    }
+
+    @Test
+    void sinTablaDejaPasar() {
+        jdbc.execute("DROP TABLE limites_peticiones");
+
+        assertEquals(Decision.UNLIMITED, otra.tryConsume("ip", POR_HORA));
+    }
+
+    // ================= Helpers =================
+
+    /** Las primeras {@code carreras} lecturas del TAT van seguidas de un consumo de la otra instancia. */
+    private JdbcTemplate conCarrera(AtomicInteger lecturas, int carreras, RateLimit limite) {
+        return new JdbcTemplate(ds) {
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> tipo, Object... args) {
+                List<T> leido = super.queryForList(sql, tipo, args);
+                if (lecturas.getAndIncrement() < carreras) otra.tryConsume((String) args[0], limite);
+                return leido;
+            }
+        };
+    }
+}
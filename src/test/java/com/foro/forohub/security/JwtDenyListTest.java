@@ -0,0 +1,126 @@
+package com.foro.forohub.security;
+
+import com.foro.forohub.domain.user.TokenRevocado;
+import com.foro.forohub.domain.user.TokenRevocadoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lista de revocados sobre H2: dos {@link JwtDenyList} con el mismo repositorio hacen de dos instancias.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JwtDenyListTest {
+
+    /** Lo pide UserChangeListener, el listener de entidad de usuarios. */
+    @MockitoBean JwtTokenCache tokenCache;
+    @Autowired TokenRevocadoRepository repository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void revocarSeVeAlInstanteEnLaMismaInstancia() {
+        JwtDenyList lista = instancia();
+
+        lista.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(15)));
+
+        assertTrue(lista.isRevoked("jti-1"));
+        assertFalse(lista.isRevoked("jti-2"));
+        assertFalse(lista.isRevoked(null));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void lasRevocacionesDeOtraInstanciaLleganConSync() {
+        JwtDenyList una = instancia();
+        JwtDenyList otra = instancia();
+
+        una.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(15)));
+        assertFalse(otra.isRevoked("jti-1"));
+
+        sync(otra);
+
+        assertTrue(otra.isRevoked("jti-1"));
+    }
+
+    @Test
+    void alArrancarCargaLasRevocacionesVigentes() {
+        instancia().revoke("jti-1", Instant.now().plus(Duration.ofMinutes(15)));
+
+        assertTrue(instancia().isRevoked("jti-1"));
+    }
+
+    @Test
+    void unTokenYaVencidoNoSeGuarda() {
+        JwtDenyList lista = instancia();
+
+        lista.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        assertFalse(lista.isRevoked("jti-1"));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void alVencerSaleDeMemoriaYDeLaTabla() throws InterruptedException {
+        JwtDenyList lista = instancia();
+        lista.revoke("corto", Instant.now().plusMillis(300));
+        lista.revoke("largo", Instant.now().plus(Duration.ofMinutes(15)));
+
+        Thread.sleep(400);
+        sync(lista);
+
+        assertFalse(lista.isRevoked("corto"));
+        assertTrue(lista.isRevoked("largo"));
+        assertEquals(1, lista.size());
+        assertEquals(List.of("largo"), repository.findAll().stream().map(TokenRevocado::getJti).toList());
+    }
+
+    @Test
+    void unaRevocacionVencidaDeOtraInstanciaNoEntra() {
+        repository.save(TokenRevocado.builder()
+                .jti("vencido")
+                .expira(LocalDateTime.now().minusSeconds(1))
+                .fechaRevocacion(LocalDateTime.now())
+                .build());
+
+        assertFalse(instancia().isRevoked("vencido"));
+    }
+
+    // ================= Helpers =================
+
+    /** Lo que hace Spring al crear el bean: construir y cargar las revocaciones vigentes. */
+    private JwtDenyList instancia() {
+        JwtDenyList lista = new JwtDenyList(repository);
+        lista.load();
+        return lista;
+    }
+
+    /** Como la tarea programada, a través del proxy transaccional del bean. */
+    private void sync(JwtDenyList lista) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> lista.sync());
+    }
+}
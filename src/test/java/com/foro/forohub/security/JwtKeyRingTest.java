@@ -0,0 +1,111 @@
+package com.foro.forohub.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Paso de HS256 a RS256 sin cortar sesiones y arranque simultáneo de instancias que comparten jwt.keys.dir.
+ */
+class JwtKeyRingTest {
+
+    private static final String SECRET = "un-secreto-de-prueba-de-al-menos-32-bytes";
+
+    @TempDir Path dir;
+
+    @Test
+    void losTokensHs256AnterioresValidanDuranteLaVentana() {
+        JwtService service = new JwtService(ring(Instant.now().plus(Duration.ofHours(1)).toString(), ""), "PT15M");
+
+        assertEquals("ana", service.verify(tokenHs256Anterior()).subject());
+    }
+
+    @Test
+    void cerradaLaVentanaLosTokensHs256SeRechazan() {
+        JwtService service = new JwtService(ring(Instant.now().minusSeconds(1).toString(), ""), "PT15M");
+
+        assertThrows(JwtException.class, () -> service.verify(tokenHs256Anterior()));
+    }
+
+    @Test
+    void sinVentanaUnTokenSinKidSeRechazaAunqueLoFirmeLaClaveActiva() {
+        JwtKeyRing ring = ring("", dir.toString()); // jwt.secret configurado no alcanza para abrirla
+        JwtService service = new JwtService(ring, "PT15M");
+        String sinKid = Jwts.builder()
+                .setSubject("ana")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(ring.signingKey().signing(), SignatureAlgorithm.RS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> service.verify(tokenHs256Anterior()));
+        assertThrows(JwtException.class, () -> service.verify(sinKid));
+    }
+
+    @Test
+    void instanciasQueArrancanJuntasFirmanConLaMismaClave() throws Exception {
+        int instancias = 8;
+        CountDownLatch largada = new CountDownLatch(1);
+        Callable<JwtKeyRing> arrancar = () -> {
+            largada.await();
+            return ring("", dir.toString());
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(instancias);
+        try {
+            List<Future<JwtKeyRing>> anillos = IntStream.range(0, instancias).mapToObj(i -> pool.submit(arrancar)).toList();
+            largada.countDown();
+            Set<String> kids = new HashSet<>();
+            for (Future<JwtKeyRing> f : anillos) kids.add(f.get().signingKey().kid());
+
+            assertEquals(1, kids.size(), "cada instancia firma con su propia clave: " + kids);
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(kids, files.map(p -> p.getFileName().toString())
+                        .filter(n -> n.endsWith(".pem"))
+                        .map(n -> n.substring(0, n.length() - 4))
+                        .collect(Collectors.toSet()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ================= Helpers =================
+
+    private static JwtKeyRing ring(String legacyHmacUntil, String dir) {
+        return new JwtKeyRing(SECRET, "RS256", "PT15M", "P7D", "PT1H", dir, legacyHmacUntil);
+    }
+
+    /** Como los emitía la versión anterior: HS256 con jwt.secret y sin kid. */
+    private static String tokenHs256Anterior() {
+        Date ahora = new Date();
+        return Jwts.builder()
+                .setSubject("ana")
+                .setIssuedAt(ahora)
+                .setExpiration(new Date(ahora.getTime() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,107 @@
+package com.foro.forohub.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invalidación por usuario, carreras con invalidaciones concurrentes y límites de la caché de tokens.
+ */
+class JwtTokenCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    @Test
+    void invalidarUnUsuarioDescartaSoloSusEntradas() {
+        JwtTokenCache cache = new JwtTokenCache(true, 100);
+        guardar(cache, "t-ana", "ana", TTL);
+        guardar(cache, "t-bea", "bea", TTL);
+
+        cache.invalidateUser("ana");
+
+        assertNull(cache.get("t-ana"));
+        assertNotNull(cache.get("t-bea"));
+        guardar(cache, "t-ana", "ana", TTL); // el usuario recargado vuelve a cachearse
+        assertNotNull(cache.get("t-ana"));
+    }
+
+    @Test
+    void unaEntradaResueltaAntesDeInvalidarNoEntra() {
+        JwtTokenCache cache = new JwtTokenCache(true, 100);
+        long generation = cache.generation(); // el filtro la lee antes de cargar al usuario
+
+        cache.invalidateUser("ana"); // cambia el rol mientras tanto
+        cache.put("t-ana", usuario("ana"), token("ana", TTL), generation);
+
+        assertNull(cache.get("t-ana"));
+    }
+
+    @Test
+    void unTokenVencidoNoSeDevuelve() {
+        JwtTokenCache cache = new JwtTokenCache(true, 100);
+
+        guardar(cache, "t-ana", "ana", Duration.ofSeconds(-1));
+
+        assertNull(cache.get("t-ana"));
+    }
+
+    @Test
+    void lasInvalidacionesQueNingunaEntradaNecesitaSeBorran() {
+        JwtTokenCache cache = new JwtTokenCache(true, 3);
+        cache.invalidateUser("ana");
+        assertEquals(1, cache.invalidations());
+
+        for (int i = 0; i < 4; i++) guardar(cache, "t-" + i, "u" + i, TTL); // la cuarta purga
+
+        assertEquals(0, cache.invalidations());
+    }
+
+    @Test
+    void elMapaDeInvalidacionesEstaAcotadoSinResucitarEntradas() {
+        JwtTokenCache cache = new JwtTokenCache(true, 10);
+        guardar(cache, "t-ana", "ana", TTL);
+        cache.invalidateUser("ana");
+
+        for (int i = 0; i < 1_000; i++) cache.invalidateUser("u" + i);
+
+        assertTrue(cache.invalidations() <= 10);
+        assertNull(cache.get("t-ana"));
+    }
+
+    @Test
+    void llenaDescartaLasEntradasQueVencenAntes() {
+        JwtTokenCache cache = new JwtTokenCache(true, 10);
+        int[] minutos = {7, 3, 9, 1, 10, 5, 2, 8, 4, 6};
+        for (int m : minutos) guardar(cache, "t-" + m, "u" + m, Duration.ofMinutes(m));
+
+        guardar(cache, "t-nuevo", "nuevo", TTL);
+
+        assertNull(cache.get("t-1"));
+        for (int m = 2; m <= 10; m++) assertNotNull(cache.get("t-" + m), "t-" + m);
+        assertNotNull(cache.get("t-nuevo"));
+    }
+
+    // ================= Helpers =================
+
+    private static void guardar(JwtTokenCache cache, String token, String username, Duration vigencia) {
+        cache.put(token, usuario(username), token(username, vigencia), cache.generation());
+    }
+
+    private static UserDetails usuario(String username) {
+        return User.withUsername(username).password("").authorities("ROLE_USER").build();
+    }
+
+    private static VerifiedToken token(String username, Duration vigencia) {
+        Instant now = Instant.now();
+        return new VerifiedToken(username, now, now.plus(vigencia), Map.of());
+    }
+}
@@ -0,0 +1,85 @@
+package com.foro.forohub.security;
+
+import com.foro.forohub.security.RateLimitStore.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Baldes en memoria con el reloj real: los límites largos no se reponen durante el test, los cortos sí.
+ */
+class LocalRateLimitStoreTest {
+
+    private static final RateLimit POR_HORA = new RateLimit(3, Duration.ofHours(1));
+    private static final RateLimit CORTO = new RateLimit(1, Duration.ofMillis(50));
+
+    private final LocalRateLimitStore store = new LocalRateLimitStore(10);
+
+    @Test
+    void rafagaYRetryAfter() {
+        for (long quedan = 2; quedan >= 0; quedan--) {
+            assertEquals(quedan, store.tryConsume("ip", POR_HORA).remaining());
+        }
+
+        Decision d = store.tryConsume("ip", POR_HORA);
+
+        assertFalse(d.allowed());
+        // un token cada 20 minutos, menos lo que haya tardado el test
+        assertTrue(d.retryAfter().compareTo(Duration.ofMinutes(20)) <= 0);
+        assertTrue(d.retryAfter().compareTo(Duration.ofMinutes(19)) > 0);
+        assertTrue(store.tryConsume("otra-ip", POR_HORA).allowed());
+    }
+
+    @Test
+    void trasRetryAfterVuelveAAdmitir() throws InterruptedException {
+        assertTrue(store.tryConsume("ip", CORTO).allowed());
+        Decision rechazo = store.tryConsume("ip", CORTO);
+        assertFalse(rechazo.allowed());
+
+        Thread.sleep(rechazo.retryAfter().toMillis() + 1);
+
+        assertTrue(store.tryConsume("ip", CORTO).allowed());
+    }
+
+    @Test
+    void purgeSoloDesalojaLosBaldesLlenos() throws InterruptedException {
+        store.tryConsume("corto", CORTO);
+        store.tryConsume("largo", POR_HORA);
+
+        Thread.sleep(60);
+        store.purge();
+
+        assertEquals(1, store.size());
+        assertEquals(1, store.tryConsume("largo", POR_HORA).remaining()); // conserva lo consumido
+    }
+
+    @Test
+    void conElMapaLlenoNoPasaDeMaxKeys() {
+        for (int i = 0; i < 10; i++) store.tryConsume("ip-" + i, POR_HORA);
+
+        assertTrue(store.tryConsume("ip-nueva", POR_HORA).allowed());
+        assertTrue(store.size() <= 10);
+    }
+
+    @Test
+    void inundarElMapaNoReiniciaUnaClaveLimitada() throws InterruptedException {
+        for (int i = 0; i < 3; i++) store.tryConsume("atacante", POR_HORA);
+        assertFalse(store.tryConsume("atacante", POR_HORA).allowed());
+        store.tryConsume("corto", CORTO);
+        Thread.sleep(60); // "corto" vuelve a estar lleno: es lo único desalojable
+
+        int admitidas = 0;
+        for (int i = 0; i < 100; i++) {
+            if (store.tryConsume("flood-" + i, POR_HORA).allowed()) admitidas++;
+        }
+
+        assertFalse(store.tryConsume("atacante", POR_HORA).allowed());
+        assertTrue(store.size() <= 10);
+        // 9 claves propias (8 libres + la de "corto") y luego la ráfaga del balde de desborde compartido
+        assertEquals(9 + 3, admitidas);
+    }
+}
@@ -0,0 +1,83 @@
+package com.foro.forohub.security;
+
+import com.foro.forohub.security.RateLimitStore.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA con un reloj de mentira: 3 peticiones cada 3 s, es decir, un token por segundo y ráfaga de 3.
+ */
+class RateLimitStoreTest {
+
+    private static final long S = 1_000_000_000L;
+    private static final RateLimit LIMITE = new RateLimit(3, Duration.ofSeconds(3));
+
+    @Test
+    void admiteLaRafagaCompletaYRechazaLaSiguiente() {
+        long tat = 0;
+        for (long quedan = 2; quedan >= 0; quedan--) {
+            long next = RateLimitStore.nextTat(tat, 0, LIMITE);
+            Decision d = RateLimitStore.decision(tat, next, 0, LIMITE);
+            assertTrue(d.allowed());
+            assertEquals(quedan, d.remaining());
+            tat = next;
+        }
+
+        long next = RateLimitStore.nextTat(tat, 0, LIMITE);
+        Decision d = RateLimitStore.decision(tat, next, 0, LIMITE);
+
+        assertEquals(Long.MIN_VALUE, next);
+        assertFalse(d.allowed());
+        assertEquals(0, d.remaining());
+        assertEquals(Duration.ofSeconds(1), d.retryAfter());
+    }
+
+    @Test
+    void retryAfterEsJustoLoQueHayQueEsperar() {
+        long tat = 3 * S; // ráfaga agotada en t=0
+        long now = S / 4;
+
+        Decision rechazo = RateLimitStore.decision(tat, RateLimitStore.nextTat(tat, now, LIMITE), now, LIMITE);
+        assertEquals(Duration.ofMillis(750), rechazo.retryAfter());
+
+        long justoAntes = now + rechazo.retryAfter().toNanos() - 1;
+        assertEquals(Long.MIN_VALUE, RateLimitStore.nextTat(tat, justoAntes, LIMITE));
+        assertTrue(RateLimitStore.nextTat(tat, justoAntes + 1, LIMITE) != Long.MIN_VALUE);
+    }
+
+    @Test
+    void seReponeUnTokenPorIntervalo() {
+        long tat = 3 * S; // ráfaga agotada en t=0
+
+        long next = RateLimitStore.nextTat(tat, 2 * S, LIMITE);
+        Decision d = RateLimitStore.decision(tat, next, 2 * S, LIMITE);
+
+        assertEquals(4 * S, next);
+        assertTrue(d.allowed());
+        assertEquals(1, d.remaining()); // pasaron dos intervalos: se repusieron dos tokens y se gastó uno
+    }
+
+    @Test
+    void unBaldeInactivoNoAcumulaMasQueLaRafaga() {
+        long next = RateLimitStore.nextTat(0, 100 * S, LIMITE);
+
+        assertEquals(101 * S, next);
+        assertEquals(2, RateLimitStore.decision(0, next, 100 * S, LIMITE).remaining());
+    }
+
+    @Test
+    void parseaElFormatoDeConfiguracion() {
+        assertEquals(new RateLimit(10, Duration.ofMinutes(1)), RateLimit.parse(" 10 / PT1M "));
+        assertNull(RateLimit.parse("0"));
+        assertNull(RateLimit.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("10"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("-1/PT1M"));
+    }
+}
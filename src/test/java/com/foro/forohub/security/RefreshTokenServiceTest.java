@@ -0,0 +1,125 @@
+package com.foro.forohub.security;
+
+import com.foro.forohub.domain.user.RefreshToken;
+import com.foro.forohub.domain.user.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rotación de refresh tokens sobre H2 con las consultas reales. Sin la transacción envolvente del test:
+ * cada llamada al servicio es su propia transacción, como cada petición en producción.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RefreshTokenService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTest {
+
+    /** Lo pide UserChangeListener, el listener de entidad de usuarios. */
+    @MockitoBean JwtTokenCache tokenCache;
+    @Autowired RefreshTokenService service;
+    @Autowired RefreshTokenRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void rotarDevuelveOtroTokenDelMismoUsuarioYFamilia() {
+        String token = service.issue("ana");
+
+        RefreshTokenService.Rotation rotation = service.rotate(token);
+
+        assertEquals("ana", rotation.username());
+        assertNotEquals(token, rotation.refreshToken());
+        assertEquals(1, repository.findAll().stream().map(RefreshToken::getFamilia).distinct().count());
+    }
+
+    @Test
+    void cadaTokenSeUsaUnaSolaVez() {
+        String token = service.issue("ana");
+        service.rotate(token);
+
+        assertThrows(CredentialsExpiredException.class, () -> service.rotate(token));
+    }
+
+    @Test
+    void reusarUnTokenRevocaLaFamiliaCompletaYSoloEsa() {
+        String robado = service.issue("ana");
+        String siguiente = service.rotate(robado).refreshToken();
+        String otraSesion = service.issue("ana");
+
+        assertThrows(CredentialsExpiredException.class, () -> service.rotate(robado));
+
+        // el dueño legítimo también pierde la sesión; el login en otro dispositivo sigue vivo
+        assertThrows(CredentialsExpiredException.class, () -> service.rotate(siguiente));
+        assertEquals("ana", service.rotate(otraSesion).username());
+    }
+
+    @Test
+    void deDosRotacionesConcurrentesSoloGanaUna() throws Exception {
+        String token = service.issue("ana");
+        CountDownLatch salida = new CountDownLatch(1);
+        Callable<Boolean> rotar = () -> {
+            salida.await();
+            try {
+                service.rotate(token);
+                return true;
+            } catch (CredentialsExpiredException ex) {
+                return false;
+            }
+        };
+
+        List<Boolean> resultados = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<Boolean> a = pool.submit(rotar);
+            Future<Boolean> b = pool.submit(rotar);
+            salida.countDown();
+            resultados.add(a.get());
+            resultados.add(b.get());
+        }
+
+        assertEquals(1, resultados.stream().filter(ok -> ok).count());
+    }
+
+    @Test
+    void unTokenVencidoNoRotaYPurgeLoBorra() {
+        String token = service.issue("ana");
+        RefreshToken guardado = repository.findAll().getFirst();
+        guardado.setExpira(LocalDateTime.now().minusMinutes(1));
+        repository.save(guardado);
+
+        assertThrows(CredentialsExpiredException.class, () -> service.rotate(token));
+        service.issue("bea");
+        service.purge();
+
+        List<RefreshToken> quedan = repository.findAll();
+        assertEquals(1, quedan.size());
+        assertTrue(quedan.stream().allMatch(r -> r.getUsuario().equals("bea")));
+    }
+}
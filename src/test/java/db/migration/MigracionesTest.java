@@ -0,0 +1,93 @@
+package db.migration;
+
+import com.foro.forohub.domain.topico.Topico;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Las migraciones sobre H2 en modo MySQL, con la misma configuración de Flyway que application.properties:
+ * una base vacía y una base creada por Hibernate antes de que existieran las migraciones (baseline en V1).
+ */
+class MigracionesTest {
+
+    private JdbcDataSource ds;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:migraciones-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1;"
+                + "INIT=CREATE ALIAS IF NOT EXISTS SHA2 FOR 'com.foro.forohub.loadtest.H2Funciones.sha2'");
+        jdbc = new JdbcTemplate(ds);
+    }
+
+    @Test
+    void unaBaseVaciaQuedaConTodoElEsquema() {
+        migrar();
+
+        for (String tabla : List.of("topicos", "users", "respuestas", "refresh_tokens", "tokens_revocados", "limites_peticiones")) {
+            assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = SCHEMA() AND table_name = ?",
+                    Integer.class, tabla), tabla);
+        }
+        assertEquals(0, restricciones("uk_topico_titulo_mensaje"));
+        assertEquals(1, restricciones("uk_users_email"));
+    }
+
+    @Test
+    void unaBaseAnteriorAFlywayRecibeElBackfillYElUnico() {
+        // Lo que dejaba ddl-auto=update con la versión original: sin único sobre (titulo, mensaje) ni historial de Flyway
+        jdbc.execute("""
+                CREATE TABLE topicos (id BIGINT AUTO_INCREMENT PRIMARY KEY, titulo VARCHAR(200) NOT NULL,
+                    mensaje TEXT NOT NULL, fecha_creacion DATETIME(6) NOT NULL, status VARCHAR(255) NOT NULL,
+                    autor VARCHAR(255) NOT NULL, curso VARCHAR(255) NOT NULL)""");
+        jdbc.execute("""
+                CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE,
+                    username VARCHAR(255) NOT NULL UNIQUE, password VARCHAR(255) NOT NULL, role VARCHAR(255) NOT NULL)""");
+        jdbc.update("INSERT INTO topicos (titulo, mensaje, fecha_creacion, status, autor, curso)"
+                + " VALUES ('Hola', 'Primer mensaje', NOW(), 'ABIERTO', 'ana', 'Java')");
+        jdbc.update("INSERT INTO topicos (titulo, mensaje, fecha_creacion, status, autor, curso)"
+                + " VALUES ('Otra', 'Segundo mensaje', NOW(), 'CERRADO', 'bea', 'SQL')");
+        jdbc.update("INSERT INTO users (email, username, password, role) VALUES ('ana@mail.com', 'ana', 'x', 'USER')");
+
+        migrar();
+
+        for (Map<String, Object> fila : jdbc.queryForList("SELECT titulo, mensaje, hash_contenido, version FROM topicos")) {
+            assertEquals(Topico.hashDe((String) fila.get("titulo"), (String) fila.get("mensaje")), fila.get("hash_contenido"));
+            assertEquals(0L, ((Number) fila.get("version")).longValue());
+        }
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertEquals("1", jdbc.queryForObject(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"type\" = 'BASELINE'", String.class));
+        assertThrows(Exception.class, () -> jdbc.update("INSERT INTO topicos (titulo, mensaje, fecha_creacion,"
+                + " fecha_actualizacion, status, autor, curso, hash_contenido) SELECT titulo, mensaje, fecha_creacion,"
+                + " fecha_actualizacion, status, autor, curso, hash_contenido FROM topicos WHERE titulo = 'Hola'"));
+    }
+
+    // ================= Helpers =================
+
+    private void migrar() {
+        Flyway.configure()
+                .dataSource(ds)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private int restricciones(String nombre) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints WHERE constraint_name = ?",
+                Integer.class, nombre);
+    }
+}